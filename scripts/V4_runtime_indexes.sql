@@ -13,3 +13,8 @@ CREATE INDEX IF NOT EXISTS ix_obs_session_active_by_id
 -- Group state: list states for an application quickly
 CREATE INDEX IF NOT EXISTS ix_obs_group_state_by_app
     ON bootleg_runtime.obs_group_state (application_id);
+
+-- Sessions: SessionReaper.deleteClosedBatch (non-ACTIVE rows past the retention cutoff, oldest first)
+CREATE INDEX IF NOT EXISTS ix_obs_session_closed_updated
+    ON bootleg_runtime.obs_session (updated_at)
+    WHERE status <> 'ACTIVE';
@@ -0,0 +1,4 @@
+-- Validation errors of an INVALIDATED group (JSON array of ValidationError), NULL when VALIDATED.
+-- Written by the same upsert as the payload.
+ALTER TABLE bootleg_runtime.obs_group_state
+    ADD COLUMN IF NOT EXISTS errors jsonb;
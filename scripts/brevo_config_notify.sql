@@ -0,0 +1,242 @@
+-- ---------------------------------------------------------------------------
+-- brevo_config change notifications (LISTEN/NOTIFY)
+--
+-- Every change to a config table publishes "KIND:code" on channel brevo_config_changed.
+-- The app (ConfigChangeListener) coalesces them and refreshes only the affected entries:
+--   JOURNEY:<journey_code>   GROUP:<group_no>   FORM:<form_code>   FIELD:<field_code>
+--   ALL                      (fallback: full refresh)
+-- NOTIFY is transactional: nothing is sent for rolled-back changes, duplicates are merged per tx.
+--
+-- Each statement on a config table also bumps that table's counter in brevo_config.config_version,
+-- the one-row table PreloadStore probes to decide whether anything changed (no table scans).
+-- ---------------------------------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS brevo_config.config_version (
+  id                 boolean PRIMARY KEY DEFAULT true CHECK (id),
+  journey_tm         bigint NOT NULL DEFAULT 0,
+  journey_group_tr   bigint NOT NULL DEFAULT 0,
+  group_tm           bigint NOT NULL DEFAULT 0,
+  group_form_tr      bigint NOT NULL DEFAULT 0,
+  form_tm            bigint NOT NULL DEFAULT 0,
+  form_child_tr      bigint NOT NULL DEFAULT 0,
+  field_tm           bigint NOT NULL DEFAULT 0,
+  form_field_tr      bigint NOT NULL DEFAULT 0,
+  form_field_rule_tr bigint NOT NULL DEFAULT 0
+);
+
+INSERT INTO brevo_config.config_version DEFAULT VALUES ON CONFLICT (id) DO NOTHING;
+
+-- statement-level: one bump per INSERT/UPDATE/DELETE/TRUNCATE, whatever the row count
+CREATE OR REPLACE FUNCTION brevo_config.trg_config_version_bump()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  EXECUTE format('UPDATE brevo_config.config_version SET %1$I = %1$I + 1', TG_TABLE_NAME);
+  RETURN NULL;
+END $$;
+
+CREATE OR REPLACE FUNCTION brevo_config.notify_config_changed(kind text, code text)
+RETURNS void
+LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM pg_notify('brevo_config_changed', COALESCE(kind || ':' || code, 'ALL'));
+END $$;
+
+
+-- journey_tm -> JOURNEY:<journey_code>
+CREATE OR REPLACE FUNCTION brevo_config.trg_journey_tm_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('JOURNEY', OLD.journey_code);
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('JOURNEY', NEW.journey_code);
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- journey_group_tr -> JOURNEY:<journey_code>
+CREATE OR REPLACE FUNCTION brevo_config.trg_journey_group_tr_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('JOURNEY',
+      (SELECT journey_code FROM brevo_config.journey_tm WHERE journey_id = OLD.journey_id));
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('JOURNEY',
+      (SELECT journey_code FROM brevo_config.journey_tm WHERE journey_id = NEW.journey_id));
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- group_tm -> GROUP:<group_no>
+CREATE OR REPLACE FUNCTION brevo_config.trg_group_tm_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('GROUP', OLD.group_no::text);
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('GROUP', NEW.group_no::text);
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- group_form_tr -> GROUP:<group_no>
+CREATE OR REPLACE FUNCTION brevo_config.trg_group_form_tr_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('GROUP',
+      (SELECT group_no::text FROM brevo_config.group_tm WHERE group_id = OLD.group_id));
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('GROUP',
+      (SELECT group_no::text FROM brevo_config.group_tm WHERE group_id = NEW.group_id));
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- form_tm -> FORM:<form_code>
+CREATE OR REPLACE FUNCTION brevo_config.trg_form_tm_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('FORM', OLD.form_code);
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('FORM', NEW.form_code);
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- form_child_tr -> FORM:<parent form_code> (the parent's groups gain/lose a child form)
+CREATE OR REPLACE FUNCTION brevo_config.trg_form_child_tr_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('FORM',
+      (SELECT form_code FROM brevo_config.form_tm WHERE form_id = OLD.parent_form_tm_id));
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('FORM',
+      (SELECT form_code FROM brevo_config.form_tm WHERE form_id = NEW.parent_form_tm_id));
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- form_field_tr / form_field_rule_tr -> FORM:<form_code>
+CREATE OR REPLACE FUNCTION brevo_config.trg_form_field_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('FORM',
+      (SELECT form_code FROM brevo_config.form_tm WHERE form_id = OLD.form_id));
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('FORM',
+      (SELECT form_code FROM brevo_config.form_tm WHERE form_id = NEW.form_id));
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- field_tm -> FIELD:<field_code>
+CREATE OR REPLACE FUNCTION brevo_config.trg_field_tm_changed()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM brevo_config.notify_config_changed('FIELD', OLD.field_code);
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM brevo_config.notify_config_changed('FIELD', NEW.field_code);
+  END IF;
+  RETURN NULL;
+END $$;
+
+-- TRUNCATE has no rows to inspect -> full refresh
+CREATE OR REPLACE FUNCTION brevo_config.trg_config_truncated()
+RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  PERFORM pg_notify('brevo_config_changed', 'ALL');
+  RETURN NULL;
+END $$;
+
+
+-- ---------------------------------------------------------------------------
+-- Triggers (re-runnable)
+-- ---------------------------------------------------------------------------
+DROP TRIGGER IF EXISTS trg_journey_tm_notify ON brevo_config.journey_tm;
+CREATE TRIGGER trg_journey_tm_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.journey_tm
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_journey_tm_changed();
+
+DROP TRIGGER IF EXISTS trg_journey_group_tr_notify ON brevo_config.journey_group_tr;
+CREATE TRIGGER trg_journey_group_tr_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.journey_group_tr
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_journey_group_tr_changed();
+
+DROP TRIGGER IF EXISTS trg_group_tm_notify ON brevo_config.group_tm;
+CREATE TRIGGER trg_group_tm_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.group_tm
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_group_tm_changed();
+
+DROP TRIGGER IF EXISTS trg_group_form_tr_notify ON brevo_config.group_form_tr;
+CREATE TRIGGER trg_group_form_tr_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.group_form_tr
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_group_form_tr_changed();
+
+DROP TRIGGER IF EXISTS trg_form_tm_notify ON brevo_config.form_tm;
+CREATE TRIGGER trg_form_tm_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.form_tm
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_form_tm_changed();
+
+DROP TRIGGER IF EXISTS trg_form_child_tr_notify ON brevo_config.form_child_tr;
+CREATE TRIGGER trg_form_child_tr_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.form_child_tr
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_form_child_tr_changed();
+
+DROP TRIGGER IF EXISTS trg_form_field_tr_notify ON brevo_config.form_field_tr;
+CREATE TRIGGER trg_form_field_tr_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.form_field_tr
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_form_field_changed();
+
+DROP TRIGGER IF EXISTS trg_form_field_rule_tr_notify ON brevo_config.form_field_rule_tr;
+CREATE TRIGGER trg_form_field_rule_tr_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.form_field_rule_tr
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_form_field_changed();
+
+DROP TRIGGER IF EXISTS trg_field_tm_notify ON brevo_config.field_tm;
+CREATE TRIGGER trg_field_tm_notify
+  AFTER INSERT OR UPDATE OR DELETE ON brevo_config.field_tm
+  FOR EACH ROW EXECUTE FUNCTION brevo_config.trg_field_tm_changed();
+
+DO $$
+DECLARE
+  t text;
+BEGIN
+  FOREACH t IN ARRAY ARRAY[
+    'journey_tm', 'journey_group_tr', 'group_tm', 'group_form_tr', 'form_tm',
+    'form_child_tr', 'field_tm', 'form_field_tr', 'form_field_rule_tr'
+  ] LOOP
+    EXECUTE format('DROP TRIGGER IF EXISTS trg_%1$s_truncate_notify ON brevo_config.%1$I', t);
+    EXECUTE format(
+      'CREATE TRIGGER trg_%1$s_truncate_notify AFTER TRUNCATE ON brevo_config.%1$I '
+      'FOR EACH STATEMENT EXECUTE FUNCTION brevo_config.trg_config_truncated()', t);
+
+    EXECUTE format('DROP TRIGGER IF EXISTS trg_%1$s_version ON brevo_config.%1$I', t);
+    EXECUTE format(
+      'CREATE TRIGGER trg_%1$s_version AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON brevo_config.%1$I '
+      'FOR EACH STATEMENT EXECUTE FUNCTION brevo_config.trg_config_version_bump()', t);
+  END LOOP;
+END $$;
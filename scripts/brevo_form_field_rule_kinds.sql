@@ -0,0 +1,40 @@
+-- ---------------------------------------------------------------------------
+-- New rule kinds: REGEX, ENUM, DATE, CROSS_FIELD
+--
+-- rule_value carries the kind-specific parameter (compiled once per snapshot load):
+--   REGEX        Java regex, the whole value must match          e.g. '^[A-Z]{2}[0-9]{6}$'
+--   ENUM         allowed values separated by '|'                  e.g. 'SINGLE|MARRIED|DIVORCED'
+--   DATE         ISO date range 'min..max', either side optional  e.g. '1900-01-01..', '..2030-12-31'
+--   CROSS_FIELD  '<EQ|NE|LT|LE|GT|GE> <OTHER_FIELD_CODE>'         e.g. 'EQ EMAIL', 'GE START_DATE'
+-- LENGTH / VALUE keep using min_value / max_value.
+--
+-- rule_seq: a field can carry several rules of the same kind (e.g. CROSS_FIELD against more than one
+-- other field, or two REGEX checks), so it is part of the key. Existing rows get 1; add the next
+-- rule of the same kind with rule_seq = 2, 3, ...
+-- ---------------------------------------------------------------------------
+ALTER TABLE brevo_config.form_field_rule_tr
+ADD COLUMN IF NOT EXISTS rule_value TEXT NULL;
+
+ALTER TABLE brevo_config.form_field_rule_tr
+ADD COLUMN IF NOT EXISTS rule_seq SMALLINT NOT NULL DEFAULT 1;
+
+ALTER TABLE brevo_config.form_field_rule_tr
+DROP CONSTRAINT IF EXISTS form_field_rule_tr_pkey;
+
+ALTER TABLE brevo_config.form_field_rule_tr
+ADD CONSTRAINT form_field_rule_tr_pkey
+PRIMARY KEY (form_id, field_id, rule_kind, rule_seq);
+
+ALTER TABLE brevo_config.form_field_rule_tr
+DROP CONSTRAINT IF EXISTS ck_rule_kind;
+
+ALTER TABLE brevo_config.form_field_rule_tr
+ADD CONSTRAINT ck_rule_kind
+CHECK (rule_kind IN ('LENGTH', 'VALUE', 'REGEX', 'ENUM', 'DATE', 'CROSS_FIELD'));
+
+ALTER TABLE brevo_config.form_field_rule_tr
+DROP CONSTRAINT IF EXISTS ck_rule_value_required;
+
+ALTER TABLE brevo_config.form_field_rule_tr
+ADD CONSTRAINT ck_rule_value_required
+CHECK (rule_kind IN ('LENGTH', 'VALUE') OR (rule_value IS NOT NULL AND btrim(rule_value) <> ''));
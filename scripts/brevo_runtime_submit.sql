@@ -0,0 +1,176 @@
+-- ---------------------------------------------------------------------------
+-- Single round-trip group submit (obs.runtime.submit-mode = SINGLE_STATEMENT)
+--
+-- Same steps as ObsRuntimeService.submitGroup (LOCKING mode), in one call:
+--   session check / auto-renew -> lock application -> order check (brevo_config plan)
+--   -> upsert group state -> invalidate later groups on back-edit -> progress -> TTL touch
+--
+-- Checks run before any write, so a rejected submit changes nothing (not even the renewal).
+-- Payload validation runs in the caller beforehand: no validation CPU time is spent holding the row lock.
+-- r_outcome: OK | SESSION_GONE | APP_NOT_FOUND | NOT_IN_JOURNEY | SKIP_AHEAD
+-- r_application_id .. r_invalidated: resulting state, published on the application event stream
+-- ---------------------------------------------------------------------------
+
+-- signature / return columns changed => CREATE OR REPLACE alone is rejected
+DROP FUNCTION IF EXISTS bootleg_runtime.obs_submit_group(uuid, uuid, int, jsonb, boolean, timestamptz);
+DROP FUNCTION IF EXISTS bootleg_runtime.obs_submit_group(uuid, uuid, int, jsonb, boolean, jsonb, timestamptz);
+
+CREATE OR REPLACE FUNCTION bootleg_runtime.obs_submit_group(
+  p_session_id     uuid,
+  p_new_session_id uuid,          -- used only when p_session_id is no longer active
+  p_group_no       int,
+  p_payload        jsonb,
+  p_force_invalid  boolean,        -- validation failed (computed by the caller, before this call)
+  p_errors         jsonb,          -- stored with INVALIDATED, ignored otherwise
+  p_expires_at     timestamptz
+)
+RETURNS TABLE (
+  r_outcome          text,
+  r_session_id       uuid,
+  r_expires_at       timestamptz,
+  r_renewed          boolean,
+  r_validate_result  boolean,
+  r_application_id   uuid,
+  r_app_status       text,
+  r_current_group_no int,
+  r_invalidated      int[]
+)
+LANGUAGE plpgsql AS $$
+DECLARE
+  v_app_id        uuid;
+  v_journey_id    uuid;
+  v_current_no    int;
+  v_active        boolean;
+  v_session_id    uuid := p_session_id;
+  v_submitted_pos int;
+  v_current_pos   int;
+  v_last_pos      int;
+  v_later         int[];
+  v_status        text;
+  v_flipped       int[];
+BEGIN
+  -- 1) session (active, or any => auto-renew below)
+  SELECT s.application_id, (s.status = 'ACTIVE' AND s.expires_at > now())
+    INTO v_app_id, v_active
+  FROM bootleg_runtime.obs_session s
+  WHERE s.session_id = p_session_id;
+
+  IF NOT FOUND THEN
+    RETURN QUERY SELECT 'SESSION_GONE'::text, NULL::uuid, NULL::timestamptz, false, false,
+      NULL::uuid, NULL::text, NULL::int, NULL::int[];
+    RETURN;
+  END IF;
+
+  -- 2) application row lock (serialises submits per application)
+  SELECT a.journey_id, a.current_group_no, a.status
+    INTO v_journey_id, v_current_no, v_status
+  FROM bootleg_runtime.obs_application a
+  WHERE a.application_id = v_app_id
+  FOR UPDATE;
+
+  IF NOT FOUND THEN
+    RETURN QUERY SELECT 'APP_NOT_FOUND'::text, NULL::uuid, NULL::timestamptz, false, false,
+      NULL::uuid, NULL::text, NULL::int, NULL::int[];
+    RETURN;
+  END IF;
+
+  -- 3) order check against the journey plan
+  SELECT max(jg.position) FILTER (WHERE g.group_no = p_group_no),
+         max(jg.position) FILTER (WHERE g.group_no = v_current_no),
+         max(jg.position)
+    INTO v_submitted_pos, v_current_pos, v_last_pos
+  FROM brevo_config.journey_group_tr jg
+  JOIN brevo_config.group_tm g ON g.group_id = jg.group_id
+  WHERE jg.journey_id = v_journey_id;
+
+  IF v_submitted_pos IS NULL THEN
+    RETURN QUERY SELECT 'NOT_IN_JOURNEY'::text, NULL::uuid, NULL::timestamptz, false, false,
+      NULL::uuid, NULL::text, NULL::int, NULL::int[];
+    RETURN;
+  END IF;
+
+  v_current_pos := COALESCE(v_current_pos, 0);   -- not started (0) or unknown group
+
+  IF v_submitted_pos > v_current_pos + 1 THEN
+    RETURN QUERY SELECT 'SKIP_AHEAD'::text, NULL::uuid, NULL::timestamptz, false, false,
+      NULL::uuid, NULL::text, NULL::int, NULL::int[];
+    RETURN;
+  END IF;
+
+  -- 4) writes
+  IF NOT v_active THEN
+    UPDATE bootleg_runtime.obs_session s
+    SET status = 'EXPIRED',
+        updated_at = now()
+    WHERE s.session_id = p_session_id
+      AND s.status = 'ACTIVE';
+
+    INSERT INTO bootleg_runtime.obs_session(session_id, application_id, status, expires_at, created_at, updated_at)
+    VALUES (p_new_session_id, v_app_id, 'ACTIVE', p_expires_at, now(), now());
+
+    v_session_id := p_new_session_id;
+  ELSE
+    UPDATE bootleg_runtime.obs_session s
+    SET expires_at = p_expires_at,
+        updated_at = now()
+    WHERE s.session_id = v_session_id
+      AND s.status = 'ACTIVE';
+  END IF;
+
+  INSERT INTO bootleg_runtime.obs_group_state AS gs(
+    application_id, group_no, status, payload, errors, submission_version, created_at, updated_at
+  )
+  VALUES (
+    v_app_id, p_group_no,
+    CASE WHEN p_force_invalid THEN 'INVALIDATED' ELSE 'VALIDATED' END,
+    p_payload,
+    CASE WHEN p_force_invalid THEN p_errors END,
+    1, now(), now()
+  )
+  ON CONFLICT (application_id, group_no)
+  DO UPDATE SET
+    status = EXCLUDED.status,
+    payload = EXCLUDED.payload,
+    errors = EXCLUDED.errors,
+    submission_version = gs.submission_version + 1,
+    updated_at = now();
+
+  IF NOT p_force_invalid THEN
+    IF v_submitted_pos <= v_current_pos THEN
+      SELECT array_agg(g.group_no)
+        INTO v_later
+      FROM brevo_config.journey_group_tr jg
+      JOIN brevo_config.group_tm g ON g.group_id = jg.group_id
+      WHERE jg.journey_id = v_journey_id
+        AND jg.position > v_submitted_pos;
+
+      WITH flipped AS (
+        UPDATE bootleg_runtime.obs_group_state gs
+        SET status = 'INVALIDATED',
+            updated_at = now()
+        WHERE gs.application_id = v_app_id
+          AND gs.group_no = ANY(v_later)
+          AND gs.status = 'VALIDATED'
+        RETURNING gs.group_no
+      )
+      SELECT array_agg(f.group_no) INTO v_flipped FROM flipped f;
+    END IF;
+
+    UPDATE bootleg_runtime.obs_application a
+    SET status = CASE WHEN v_submitted_pos = v_last_pos THEN 'READY_FOR_FINALISATION' ELSE 'IN_PROGRESS' END,
+        current_group_no = p_group_no,
+        updated_at = now(),
+        version = a.version + 1
+    WHERE a.application_id = v_app_id
+    RETURNING a.status, a.current_group_no INTO v_status, v_current_no;
+  ELSE
+    -- INVALIDATED keeps progress, but the version still moves (snapshot cache key)
+    UPDATE bootleg_runtime.obs_application a
+    SET updated_at = now(),
+        version = a.version + 1
+    WHERE a.application_id = v_app_id;
+  END IF;
+
+  RETURN QUERY SELECT 'OK'::text, v_session_id, p_expires_at, NOT v_active, NOT p_force_invalid,
+    v_app_id, v_status, COALESCE(v_current_no, 0), COALESCE(v_flipped, '{}'::int[]);
+END $$;
@@ -1,7 +1,9 @@
 package com.bootleg.brevo;
 
 import com.bootleg.brevo.configuration.NativeResourcesHints;
+import com.bootleg.brevo.preload.PreloadProperties;
 import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
+import com.bootleg.brevo.validation.ValidationProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -10,7 +12,7 @@ import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
 @ImportRuntimeHints(NativeResourcesHints.class)
-@EnableConfigurationProperties(ObsRuntimeProperties.class)
+@EnableConfigurationProperties({ObsRuntimeProperties.class, PreloadProperties.class, ValidationProperties.class})
 public class BootlegRevolut {
 
   public static void main(String[] args) {
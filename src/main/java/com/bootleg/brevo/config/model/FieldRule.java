@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 public record FieldRule(
   RuleKind kind,
   BigDecimal min,
-  BigDecimal max
+  BigDecimal max,
+  String value          // form_field_rule_tr.rule_value: kind-specific parameter (see RuleKind), null for LENGTH / VALUE
 ) {
 }
@@ -1,6 +1,25 @@
 package com.bootleg.brevo.config.model;
 
+import java.util.Locale;
+
 public enum RuleKind {
   LENGTH,
-  VALUE
+  VALUE,
+  REGEX,        // value = Java regex, whole value must match
+  ENUM,         // value = allowed values separated by '|'
+  DATE,         // value = ISO date range "min..max", either side optional
+  CROSS_FIELD,  // value = "<EQ|NE|LT|LE|GT|GE> <OTHER_FIELD_CODE>"
+  UNKNOWN;      // a rule_kind this version does not know: kept, reported as UNKNOWN_RULE at validate time
+
+  /**
+   * Lenient parse for config rows: an unknown (e.g. newer) kind must not fail the whole load.
+   */
+  public static RuleKind parse(String raw) {
+    if (raw == null) return UNKNOWN;
+    String name = raw.trim().toUpperCase(Locale.ROOT);
+    for (RuleKind k : values()) {
+      if (k.name().equals(name)) return k;
+    }
+    return UNKNOWN;
+  }
 }
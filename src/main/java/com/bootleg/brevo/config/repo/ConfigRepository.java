@@ -7,11 +7,28 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class ConfigRepository {
 
+  /**
+   * Tables that make up a PreloadSnapshot (used for change detection).
+   */
+  private static final List<String> CONFIG_TABLES = List.of(
+    "journey_tm",
+    "journey_group_tr",
+    "group_tm",
+    "group_form_tr",
+    "form_tm",
+    "form_child_tr",
+    "field_tm",
+    "form_field_tr",
+    "form_field_rule_tr"
+  );
+
   private final DatabaseClient db;
 
   public ConfigRepository(DatabaseClient db) {
@@ -170,12 +187,13 @@ public class ConfigRepository {
              fld.field_code,
              r.rule_kind,
              r.min_value,
-             r.max_value
+             r.max_value,
+             r.rule_value
       FROM brevo_config.form_tm f
       JOIN brevo_config.form_field_rule_tr r ON r.form_id = f.form_id
       JOIN brevo_config.field_tm fld ON fld.field_id = r.field_id
       WHERE f.form_code IN ( %s )
-      ORDER BY f.form_code, fld.field_code, r.rule_kind
+      ORDER BY f.form_code, fld.field_code, r.rule_kind, r.rule_seq
       """.formatted(in);
 
     DatabaseClient.GenericExecuteSpec spec = db.sql(sql);
@@ -188,7 +206,8 @@ public class ConfigRepository {
         must(row.get("field_code", String.class)),
         must(row.get("rule_kind", String.class)),
         row.get("min_value", BigDecimal.class),
-        row.get("max_value", BigDecimal.class)
+        row.get("max_value", BigDecimal.class),
+        row.get("rule_value", String.class)
       ))
       .all();
   }
@@ -229,10 +248,188 @@ public class ConfigRepository {
       .all();
   }
 
+  // ---------- Bulk queries (whole active config, constant number of round-trips) ----------
+
+  /**
+   * Groups used by at least one active journey, their parent forms, and those parents' child forms.
+   * Shared by the bulk queries below so they all see the same "active" slice.
+   */
+  private static final String ACTIVE_FORMS_CTE = """
+    WITH active_groups AS (
+      SELECT DISTINCT g.group_id, g.group_no
+      FROM brevo_config.journey_tm j
+      JOIN brevo_config.journey_group_tr jgt ON jgt.journey_id = j.journey_id
+      JOIN brevo_config.group_tm g ON g.group_id = jgt.group_id
+      WHERE j.is_active = true
+    ),
+    parent_forms AS (
+      SELECT DISTINCT gft.form_id
+      FROM active_groups ag
+      JOIN brevo_config.group_form_tr gft ON gft.group_id = ag.group_id
+    ),
+    active_forms AS (
+      SELECT form_id FROM parent_forms
+      UNION
+      SELECT rel.child_form_tm_id
+      FROM parent_forms pf
+      JOIN brevo_config.form_child_tr rel ON rel.parent_form_tm_id = pf.form_id
+    )
+    """;
+
+  /**
+   * Active journey -> groupNos, for all active journeys in one query.
+   */
+  public Flux<JourneyGroupRow> findActiveJourneyGroups() {
+    String sql = """
+      SELECT DISTINCT j.journey_code, g.group_no
+      FROM brevo_config.journey_tm j
+      JOIN brevo_config.journey_group_tr jgt ON jgt.journey_id = j.journey_id
+      JOIN brevo_config.group_tm g ON g.group_id = jgt.group_id
+      WHERE j.is_active = true
+      ORDER BY j.journey_code, g.group_no
+      """;
+
+    return db.sql(sql)
+      .map((row, md) -> new JourneyGroupRow(
+        must(row.get("journey_code", String.class)),
+        must(row.get("group_no", Integer.class))
+      ))
+      .all();
+  }
+
+  /**
+   * Every active group -> ordered forms. Groups without forms come back once with formCode = null.
+   */
+  public Flux<GroupFormBulkRow> findFormsForActiveGroups() {
+    String sql = ACTIVE_FORMS_CTE + """
+      SELECT ag.group_no,
+             f.form_code,
+             gft.sort_order AS form_sort_order
+      FROM active_groups ag
+      LEFT JOIN brevo_config.group_form_tr gft ON gft.group_id = ag.group_id
+      LEFT JOIN brevo_config.form_tm f ON f.form_id = gft.form_id
+      ORDER BY ag.group_no, gft.sort_order
+      """;
+
+    return db.sql(sql)
+      .map((row, md) -> {
+        Integer sort = row.get("form_sort_order", Integer.class);
+        return new GroupFormBulkRow(
+          must(row.get("group_no", Integer.class)),
+          row.get("form_code", String.class),
+          sort == null ? 0 : sort
+        );
+      })
+      .all();
+  }
+
+  /**
+   * Parent -> child forms for every parent form used by an active group.
+   */
+  public Flux<ParentChildFormRow> findChildFormsForActiveGroups() {
+    String sql = ACTIVE_FORMS_CTE + """
+      SELECT p.form_code AS parent_form_code,
+             c.form_code AS child_form_code
+      FROM parent_forms pf
+      JOIN brevo_config.form_tm p ON p.form_id = pf.form_id
+      JOIN brevo_config.form_child_tr rel ON rel.parent_form_tm_id = p.form_id
+      JOIN brevo_config.form_tm c ON c.form_id = rel.child_form_tm_id
+      ORDER BY p.form_code, c.form_code
+      """;
+
+    return db.sql(sql)
+      .map((row, md) -> new ParentChildFormRow(
+        must(row.get("parent_form_code", String.class)),
+        must(row.get("child_form_code", String.class))
+      ))
+      .all();
+  }
+
+  /**
+   * Fields for every active form (parents + children).
+   */
+  public Flux<FormFieldRow> findFieldsForActiveForms() {
+    String sql = ACTIVE_FORMS_CTE + """
+      SELECT f.form_code,
+             fld.field_code,
+             fld.field_type,
+             fft.is_required,
+             fft.sort_order AS field_sort_order
+      FROM active_forms af
+      JOIN brevo_config.form_tm f ON f.form_id = af.form_id
+      JOIN brevo_config.form_field_tr fft ON fft.form_id = f.form_id
+      JOIN brevo_config.field_tm fld ON fld.field_id = fft.field_id
+      ORDER BY f.form_code, fft.sort_order
+      """;
+
+    return db.sql(sql)
+      .map((row, md) -> new FormFieldRow(
+        must(row.get("form_code", String.class)),
+        must(row.get("field_code", String.class)),
+        must(row.get("field_type", String.class)),
+        Boolean.TRUE.equals(row.get("is_required", Boolean.class)),
+        must(row.get("field_sort_order", Integer.class))
+      ))
+      .all();
+  }
+
+  /**
+   * Rules for every active form (parents + children).
+   */
+  public Flux<FormFieldRuleRow> findRulesForActiveForms() {
+    String sql = ACTIVE_FORMS_CTE + """
+      SELECT f.form_code,
+             fld.field_code,
+             r.rule_kind,
+             r.min_value,
+             r.max_value,
+             r.rule_value
+      FROM active_forms af
+      JOIN brevo_config.form_tm f ON f.form_id = af.form_id
+      JOIN brevo_config.form_field_rule_tr r ON r.form_id = f.form_id
+      JOIN brevo_config.field_tm fld ON fld.field_id = r.field_id
+      ORDER BY f.form_code, fld.field_code, r.rule_kind, r.rule_seq
+      """;
+
+    return db.sql(sql)
+      .map((row, md) -> new FormFieldRuleRow(
+        must(row.get("form_code", String.class)),
+        must(row.get("field_code", String.class)),
+        must(row.get("rule_kind", String.class)),
+        row.get("min_value", BigDecimal.class),
+        row.get("max_value", BigDecimal.class),
+        row.get("rule_value", String.class)
+      ))
+      .all();
+  }
+
+  /**
+   * Change-detection probe: one single-row read, one version counter per brevo_config table.
+   * The counters live in brevo_config.config_version and are bumped by statement triggers
+   * (scripts/brevo_config_notify.sql), so the probe costs the same whatever the config size.
+   */
+  public Mono<Map<String, String>> findConfigVersions() {
+    return db.sql("SELECT %s FROM brevo_config.config_version".formatted(String.join(", ", CONFIG_TABLES)))
+      .map((row, md) -> {
+        Map<String, String> versions = new HashMap<>();
+        for (String table : CONFIG_TABLES) versions.put(table, String.valueOf(must(row.get(table, Long.class))));
+        return Map.copyOf(versions);
+      })
+      .one()
+      .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+        "brevo_config.config_version has no row (run scripts/brevo_config_notify.sql)")));
+  }
+
   // ---------- Row DTOs ----------
   public record GroupFormRow(String formCode, int sortOrder) {
   }
 
+  public record JourneyGroupRow(String journeyCode, int groupNo) {
+  }
+
+  public record GroupFormBulkRow(int groupNo, String formCode, int sortOrder) {
+  }
+
   public record FormFieldRow(
     String formCode,
     String fieldCode,
@@ -251,7 +448,8 @@ public class ConfigRepository {
     String fieldCode,
     String ruleKind,
     BigDecimal min,
-    BigDecimal max
+    BigDecimal max,
+    String value
   ) {
   }
 }
@@ -76,9 +76,10 @@ public class DynamicConfigLoader {
                     Collectors.groupingBy(
                       ConfigRepository.FormFieldRuleRow::fieldCode,
                       Collectors.mapping(r -> new FieldRule(
-                        RuleKind.valueOf(normalise(r.ruleKind())),
+                        RuleKind.parse(r.ruleKind()),
                         r.min(),
-                        r.max()
+                        r.max(),
+                        r.value()
                       ), Collectors.toList())
                     )
                   ));
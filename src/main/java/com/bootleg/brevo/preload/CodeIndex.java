@@ -0,0 +1,61 @@
+package com.bootleg.brevo.preload;
+
+/**
+ * Tiny String -> int open-addressing map (linear probing), the code counterpart of IntIndex.
+ * <p>
+ * Filled once while a snapshot is built, then only read. Lookups use the String's cached hash and
+ * return a primitive: no boxing, no allocation. Missing keys return -1, so values must be >= 0.
+ */
+public final class CodeIndex {
+
+  private final String[] keys;
+  private final int[] values;
+  private final int mask;
+  private int size;
+
+  public CodeIndex(int expectedSize) {
+    int cap = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+    this.keys = new String[cap];
+    this.values = new int[cap];
+    this.mask = cap - 1;
+  }
+
+  private static int mix(int h) {
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Build-time only. Capacity is fixed, so callers must size it with the final key count.
+   */
+  public void put(String key, int value) {
+    if (key == null) throw new IllegalArgumentException("Key must not be null");
+    if (value < 0) throw new IllegalArgumentException("Value must be >= 0: " + value);
+
+    int i = mix(key.hashCode()) & mask;
+    while (keys[i] != null && !keys[i].equals(key)) i = (i + 1) & mask;
+
+    if (keys[i] == null) {
+      if (size + 1 > keys.length / 2) throw new IllegalStateException("CodeIndex is full");
+      size++;
+    }
+    keys[i] = key;
+    values[i] = value;
+  }
+
+  public int get(String key) {
+    if (key == null) return -1;
+
+    int i = mix(key.hashCode()) & mask;
+    while (true) {
+      String k = keys[i];
+      if (k == null) return -1;
+      if (k == key || k.equals(key)) return values[i];
+      i = (i + 1) & mask;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+}
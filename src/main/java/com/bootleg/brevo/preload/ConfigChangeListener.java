@@ -0,0 +1,153 @@
+package com.bootleg.brevo.preload;
+
+import com.bootleg.brevo.runtime.service.JourneyPlanService;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Listens for brevo_config change notifications (Postgres LISTEN/NOTIFY) and refreshes
+ * only the affected PreloadStore entries.
+ * <p>
+ * - Holds ONE dedicated connection for the lifetime of the app (LISTEN is per-connection). It is opened from
+ * its own unpooled factory built from spring.r2dbc.*: it takes no slot from the application pool and is
+ * really closed on reconnect, so no request ever borrows a connection that is still LISTENing.
+ * - Notifications are coalesced for {@code brevo.preload.listen-debounce} and applied as one refresh.
+ * - Connection loss => reconnect with backoff, then one refreshIfChanged() to catch anything missed.
+ * - Until the first snapshot is in place, changes are left to PreloadWarmUp: its restore + verify (or full load)
+ * already sees them, and refreshing an empty store here would beat the file restore to it.
+ */
+@Slf4j
+@Component
+public class ConfigChangeListener {
+
+  private final ConnectionFactory connectionFactory;
+  private final PreloadStore preloadStore;
+  private final JourneyPlanService journeyPlanService;
+  private final PreloadProperties props;
+
+  private volatile Disposable subscription;
+
+  public ConfigChangeListener(R2dbcProperties r2dbc,
+                              PreloadStore preloadStore,
+                              JourneyPlanService journeyPlanService,
+                              PreloadProperties props) {
+    this.connectionFactory = unpooled(r2dbc);
+    this.preloadStore = preloadStore;
+    this.journeyPlanService = journeyPlanService;
+    this.props = props;
+  }
+
+  /**
+   * Same database as the application pool, without the pool (an r2dbc:pool: url is unwrapped to its driver).
+   */
+  private static ConnectionFactory unpooled(R2dbcProperties r2dbc) {
+    ConnectionFactoryOptions parsed = ConnectionFactoryOptions.parse(r2dbc.getUrl());
+    ConnectionFactoryOptions.Builder b = ConnectionFactoryOptions.builder().from(parsed);
+
+    if ("pool".equals(parsed.getValue(ConnectionFactoryOptions.DRIVER))) {
+      Object protocol = parsed.getValue(ConnectionFactoryOptions.PROTOCOL);
+      b = ConnectionFactoryOptions.builder();
+      for (Option<?> o : new Option<?>[]{ConnectionFactoryOptions.HOST, ConnectionFactoryOptions.PORT,
+        ConnectionFactoryOptions.DATABASE, ConnectionFactoryOptions.USER, ConnectionFactoryOptions.PASSWORD,
+        ConnectionFactoryOptions.SSL}) {
+        copy(parsed, b, o);
+      }
+      b.option(ConnectionFactoryOptions.DRIVER, String.valueOf(protocol));
+    }
+
+    if (StringUtils.hasText(r2dbc.getUsername())) b.option(ConnectionFactoryOptions.USER, r2dbc.getUsername());
+    if (StringUtils.hasText(r2dbc.getPassword())) b.option(ConnectionFactoryOptions.PASSWORD, r2dbc.getPassword());
+    return ConnectionFactories.get(b.build());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void copy(ConnectionFactoryOptions from, ConnectionFactoryOptions.Builder to, Option<?> option) {
+    Object v = from.getValue(option);
+    if (v != null) to.option((Option<Object>) option, v);
+  }
+
+  private static PostgresqlConnection unwrap(Connection conn) {
+    Object c = conn;
+    while (!(c instanceof PostgresqlConnection) && c instanceof Wrapped<?> w) {
+      c = w.unwrap();
+    }
+    if (c instanceof PostgresqlConnection pg) return pg;
+    throw new IllegalStateException("LISTEN/NOTIFY needs a PostgreSQL connection, got: " + conn.getClass());
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!props.listenEnabled()) return;
+
+    subscription = notifications()
+      .bufferTimeout(512, props.listenDebounce())
+      .map(ConfigChangeSet::parse)
+      .doOnNext(this::invalidatePlans)
+      .filter(changes -> preloadStore.isLoaded())
+      .concatMap(changes -> preloadStore.refresh(changes)
+        .doOnNext(s -> log.info("Config change applied: {}", changes))
+        .onErrorResume(e -> {
+          log.warn("Config change refresh failed: {}", changes, e);
+          return Mono.empty();
+        }))
+      .subscribe();
+  }
+
+  /**
+   * Journey plans only depend on journey_tm/journey_group_tr, both reported as JOURNEY:<code>.
+   */
+  private void invalidatePlans(ConfigChangeSet changes) {
+    if (changes.all()) {
+      journeyPlanService.invalidateAll();
+      return;
+    }
+    changes.journeyCodes().forEach(journeyPlanService::invalidate);
+  }
+
+  @PreDestroy
+  public void stop() {
+    Disposable d = subscription;
+    if (d != null) d.dispose();
+  }
+
+  private Flux<String> notifications() {
+    String channel = props.listenChannel();
+
+    return Flux.usingWhen(
+        connectionFactory.create(),
+        conn -> {
+          PostgresqlConnection pg = unwrap(conn);
+          return pg.createStatement("LISTEN " + channel)
+            .execute()
+            .flatMap(Result::getRowsUpdated)
+            .then()
+            // reconnect: we may have missed changes while the connection was down
+            // (first connect during startup: nothing loaded yet, warm-up does the load)
+            .then(Mono.defer(() -> preloadStore.isLoaded()
+              ? preloadStore.refreshIfChanged().onErrorResume(e -> Mono.empty()).then()
+              : Mono.<Void>empty()))
+            .thenMany(pg.getNotifications())
+            // notifications only end when the connection does: treat as failure so we reconnect
+            .concatWith(Mono.error(new IllegalStateException("LISTEN connection closed")));
+        },
+        Connection::close
+      )
+      .map(n -> n.getParameter() == null ? "ALL" : n.getParameter())
+      .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+        .maxBackoff(Duration.ofSeconds(30))
+        .transientErrors(true)
+        .doBeforeRetry(sig -> log.warn("LISTEN {} lost, reconnecting", channel, sig.failure())));
+  }
+}
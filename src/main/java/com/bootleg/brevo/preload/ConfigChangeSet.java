@@ -0,0 +1,56 @@
+package com.bootleg.brevo.preload;
+
+import java.util.*;
+
+/**
+ * A batch of brevo_config change notifications, deduplicated.
+ * <p>
+ * Payload format (see scripts/brevo_config_notify.sql): KIND:code
+ * - JOURNEY:JOURNEY_A
+ * - GROUP:2
+ * - FORM:FORM_A
+ * - FIELD:FIELD_A1
+ * - ALL (or anything we cannot parse) => full refresh
+ */
+public record ConfigChangeSet(
+  boolean all,
+  Set<String> journeyCodes,
+  Set<Integer> groupNos,
+  Set<String> formCodes,
+  Set<String> fieldCodes
+) {
+
+  public static ConfigChangeSet parse(Collection<String> payloads) {
+    Set<String> journeys = new TreeSet<>();
+    Set<Integer> groups = new TreeSet<>();
+    Set<String> forms = new TreeSet<>();
+    Set<String> fields = new TreeSet<>();
+    boolean all = false;
+
+    for (String p : payloads) {
+      int sep = p == null ? -1 : p.indexOf(':');
+      if (sep <= 0 || sep == p.length() - 1) {
+        all = true;
+        continue;
+      }
+
+      String kind = p.substring(0, sep);
+      String code = p.substring(sep + 1);
+      switch (kind) {
+        case "JOURNEY" -> journeys.add(code);
+        case "FORM" -> forms.add(code);
+        case "FIELD" -> fields.add(code);
+        case "GROUP" -> {
+          try {
+            groups.add(Integer.parseInt(code));
+          } catch (NumberFormatException e) {
+            all = true;
+          }
+        }
+        default -> all = true;
+      }
+    }
+
+    return new ConfigChangeSet(all, Set.copyOf(journeys), Set.copyOf(groups), Set.copyOf(forms), Set.copyOf(fields));
+  }
+}
@@ -2,6 +2,7 @@ package com.bootleg.brevo.preload;
 
 import com.bootleg.brevo.config.model.*;
 import com.bootleg.brevo.config.repo.ConfigRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
@@ -14,7 +15,10 @@ import java.util.stream.Collectors;
  * IMPORTANT:
  * A group can contain parent forms (via group_form_tr) and those parents can have child forms (via form_child_tr).
  * We flatten the group by loading fields/rules for BOTH parents + children and include child forms as FormDefinitions.
+ * <p>
+ * load(groupNo) is for targeted refreshes; loadAllActive() is the bulk mode used by full refreshes.
  */
+@Slf4j
 @Component
 public class GroupDefinitionLoader {
 
@@ -70,27 +74,100 @@ public class GroupDefinitionLoader {
                 .map(this::toRulesMap);
 
             return Mono.zip(fieldsMono, rulesMono)
-              .map(t -> {
-                Map<String, List<ConfigRepository.FormFieldRow>> fieldsByForm = t.getT1();
-                Map<String, Map<String, List<FieldRule>>> rulesByFormField = t.getT2();
+              .map(t -> buildGroup(groupNo, parentsOrdered, childMap, t.getT1(), t.getT2()));
+          });
+      });
+  }
+
+  /**
+   * Bulk mode: every group used by an active journey, in a constant number of queries
+   * (forms, parent->child, fields, rules) no matter how many groups exist.
+   * Groups are then assembled in memory exactly like {@link #load(int)} does.
+   */
+  public Mono<Map<Integer, GroupDefinition>> loadAllActive() {
+    Mono<List<ConfigRepository.GroupFormBulkRow>> formsMono =
+      repo.findFormsForActiveGroups().collectList();
+
+    Mono<Map<String, List<String>>> childMono =
+      repo.findChildFormsForActiveGroups()
+        .collectList()
+        .map(this::toChildMap);
+
+    Mono<Map<String, List<ConfigRepository.FormFieldRow>>> fieldsMono =
+      repo.findFieldsForActiveForms()
+        .collectList()
+        .map(rows -> rows.stream()
+          .collect(Collectors.groupingBy(ConfigRepository.FormFieldRow::formCode)));
+
+    Mono<Map<String, Map<String, List<FieldRule>>>> rulesMono =
+      repo.findRulesForActiveForms()
+        .collectList()
+        .map(this::toRulesMap);
+
+    return Mono.zip(formsMono, childMono, fieldsMono, rulesMono)
+      .map(t -> {
+        Map<String, List<String>> allChildren = t.getT2();
+
+        // group -> parent forms (rows already ordered by group_no, sort_order)
+        Map<Integer, List<ConfigRepository.GroupFormRow>> formsByGroup = new TreeMap<>();
+        for (ConfigRepository.GroupFormBulkRow r : t.getT1()) {
+          List<ConfigRepository.GroupFormRow> rows = formsByGroup.computeIfAbsent(r.groupNo(), k -> new ArrayList<>());
+          if (r.formCode() != null) rows.add(new ConfigRepository.GroupFormRow(r.formCode(), r.sortOrder()));
+        }
+
+        Map<Integer, GroupDefinition> out = new HashMap<>();
+        for (var e : formsByGroup.entrySet()) {
+          int groupNo = e.getKey();
+          List<ConfigRepository.GroupFormRow> parentsOrdered = e.getValue().stream()
+            .sorted(Comparator.comparingInt(ConfigRepository.GroupFormRow::sortOrder))
+            .toList();
+
+          if (parentsOrdered.isEmpty()) {
+            out.put(groupNo, new GroupDefinition(groupNo, List.of(), Map.of()));
+            continue;
+          }
+
+          // only the parents of this group (same shape as load(groupNo))
+          Map<String, List<String>> childMap = new HashMap<>();
+          for (ConfigRepository.GroupFormRow fr : parentsOrdered) {
+            List<String> kids = allChildren.get(fr.formCode());
+            if (kids != null) childMap.put(fr.formCode(), kids);
+          }
+
+          out.put(groupNo, buildGroup(groupNo, parentsOrdered, Map.copyOf(childMap), t.getT3(), t.getT4()));
+        }
+        return Map.copyOf(out);
+      });
+  }
 
-                List<FormDefinition> forms = new ArrayList<>();
+  private GroupDefinition buildGroup(
+    int groupNo,
+    List<ConfigRepository.GroupFormRow> parentsOrdered,
+    Map<String, List<String>> childMap,
+    Map<String, List<ConfigRepository.FormFieldRow>> fieldsByForm,
+    Map<String, Map<String, List<FieldRule>>> rulesByFormField
+  ) {
+    // Children in stable order: follow parent order, then child list order
+    LinkedHashSet<String> childOrdered = new LinkedHashSet<>();
+    for (ConfigRepository.GroupFormRow p : parentsOrdered) {
+      List<String> kids = childMap.getOrDefault(p.formCode(), List.of());
+      for (String c : kids) childOrdered.add(c);
+    }
+
+    List<FormDefinition> forms = new ArrayList<>();
 
-                // Parent FormDefinitions (keep group sort order)
-                for (ConfigRepository.GroupFormRow fr : parentsOrdered) {
-                  forms.add(buildForm(fr.formCode(), fr.sortOrder(), fieldsByForm, rulesByFormField));
-                }
+    // Parent FormDefinitions (keep group sort order)
+    for (ConfigRepository.GroupFormRow fr : parentsOrdered) {
+      forms.add(buildForm(fr.formCode(), fr.sortOrder(), fieldsByForm, rulesByFormField));
+    }
 
-                // Child FormDefinitions (append after parents; stable order)
-                int nextSort = parentsOrdered.get(parentsOrdered.size() - 1).sortOrder() + 1;
-                for (String childCode : childOrdered) {
-                  forms.add(buildForm(childCode, nextSort++, fieldsByForm, rulesByFormField));
-                }
+    // Child FormDefinitions (append after parents; stable order)
+    int nextSort = parentsOrdered.get(parentsOrdered.size() - 1).sortOrder() + 1;
+    for (String childCode : childOrdered) {
+      forms.add(buildForm(childCode, nextSort++, fieldsByForm, rulesByFormField));
+    }
 
-                return new GroupDefinition(groupNo, List.copyOf(forms), childMap);
-              });
-          });
-      });
+    return new GroupDefinition(groupNo, List.copyOf(forms), childMap);
   }
 
   private FormDefinition buildForm(
@@ -134,8 +211,8 @@ public class GroupDefinitionLoader {
     Map<String, Map<String, List<FieldRule>>> out = new HashMap<>();
 
     for (ConfigRepository.FormFieldRuleRow r : rows) {
-      RuleKind kind = parseRuleKind(r.ruleKind());
-      FieldRule rule = new FieldRule(kind, r.min(), r.max());
+      RuleKind kind = parseRuleKind(r);
+      FieldRule rule = new FieldRule(kind, r.min(), r.max(), r.value());
 
       out.computeIfAbsent(r.formCode(), k -> new HashMap<>())
         .computeIfAbsent(r.fieldCode(), k -> new ArrayList<>())
@@ -158,8 +235,12 @@ public class GroupDefinitionLoader {
     return FieldType.valueOf(raw.trim().toUpperCase(Locale.ROOT));
   }
 
-  private RuleKind parseRuleKind(String raw) {
-    if (raw == null) throw new IllegalStateException("rule_kind is null");
-    return RuleKind.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+  // unknown kinds are kept as UNKNOWN (UNKNOWN_RULE at validate time) instead of failing the refresh
+  private RuleKind parseRuleKind(ConfigRepository.FormFieldRuleRow r) {
+    RuleKind kind = RuleKind.parse(r.ruleKind());
+    if (kind == RuleKind.UNKNOWN) {
+      log.warn("Unsupported rule_kind '{}' on {}.{}", r.ruleKind(), r.formCode(), r.fieldCode());
+    }
+    return kind;
   }
 }
@@ -0,0 +1,64 @@
+package com.bootleg.brevo.preload;
+
+import java.util.Arrays;
+
+/**
+ * Tiny int -> int open-addressing map (linear probing).
+ * <p>
+ * Filled once while a snapshot is built, then only read. Lookups do not box or allocate.
+ * Missing keys return -1, so values must be >= 0 (we only store dense slot ids).
+ */
+public final class IntIndex {
+
+  private static final int EMPTY = Integer.MIN_VALUE;
+
+  private final int[] keys;
+  private final int[] values;
+  private final int mask;
+  private int size;
+
+  public IntIndex(int expectedSize) {
+    int cap = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+    this.keys = new int[cap];
+    this.values = new int[cap];
+    this.mask = cap - 1;
+    Arrays.fill(keys, EMPTY);
+  }
+
+  private static int mix(int k) {
+    int h = k * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Build-time only. Capacity is fixed, so callers must size it with the final key count.
+   */
+  public void put(int key, int value) {
+    if (key == EMPTY) throw new IllegalArgumentException("Unsupported key: " + key);
+    if (value < 0) throw new IllegalArgumentException("Value must be >= 0: " + value);
+
+    int i = mix(key) & mask;
+    while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+
+    if (keys[i] == EMPTY) {
+      if (size + 1 > keys.length / 2) throw new IllegalStateException("IntIndex is full");
+      size++;
+    }
+    keys[i] = key;
+    values[i] = value;
+  }
+
+  public int get(int key) {
+    int i = mix(key) & mask;
+    while (true) {
+      int k = keys[i];
+      if (k == EMPTY) return -1;      // first: the unsupported key must not match an empty slot
+      if (k == key) return values[i];
+      i = (i + 1) & mask;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,30 @@
+package com.bootleg.brevo.preload;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor "preload": DOWN until the config snapshot has been loaded once.
+ * Included in the readiness group (application.yml), so a pod only gets traffic once
+ * validation can actually answer (instead of UNKNOWN_GROUP for everything).
+ */
+@Component("preload")
+public class PreloadHealthIndicator implements HealthIndicator {
+
+  private final PreloadStore preloadStore;
+
+  public PreloadHealthIndicator(PreloadStore preloadStore) {
+    this.preloadStore = preloadStore;
+  }
+
+  @Override
+  public Health health() {
+    PreloadSnapshot snap = preloadStore.current();
+    Health.Builder b = preloadStore.isLoaded() ? Health.up() : Health.down();
+    return b
+      .withDetail("loadedAt", snap.loadedAt().toString())
+      .withDetail("journeys", snap.journeys().size())
+      .build();
+  }
+}
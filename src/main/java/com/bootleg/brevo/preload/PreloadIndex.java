@@ -0,0 +1,250 @@
+package com.bootleg.brevo.preload;
+
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import com.bootleg.brevo.validation.plan.GroupValidationPlan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense, id-based view of a PreloadSnapshot for the validate hot path.
+ * <p>
+ * Journey, form and field codes are interned to ints when the snapshot is built:
+ * - journeyId: position in {@link #journeyCodes()}
+ * - formId:    position in {@link #formCodes()}
+ * - fieldId:   position in {@link #fieldCodes()}
+ * Every plan in the snapshot shares the one interned String per code. Code -> id goes through a CodeIndex
+ * (primitive values, no boxing); everything after that is array reads / int-keyed probes, so no
+ * "journey|group" keys are concatenated per request. Resolve a code once, then reuse the int.
+ */
+public final class PreloadIndex {
+
+  private static final PreloadIndex EMPTY = new Builder().build();
+
+  private final List<String> journeyCodes;
+  private final CodeIndex journeyIds;
+
+  private final List<String> formCodes;
+  private final CodeIndex formIds;
+  private final FormValidationPlan[] formPlans;
+
+  private final List<String> fieldCodes;
+  private final CodeIndex fieldIds;
+
+  // [journeyId] -> groupNo -> slot in plansByJourney[journeyId]
+  private final IntIndex[] groupSlotsByJourney;
+  private final GroupValidationPlan[][] plansByJourney;
+
+  private PreloadIndex(
+    List<String> journeyCodes,
+    CodeIndex journeyIds,
+    List<String> formCodes,
+    CodeIndex formIds,
+    FormValidationPlan[] formPlans,
+    List<String> fieldCodes,
+    CodeIndex fieldIds,
+    IntIndex[] groupSlotsByJourney,
+    GroupValidationPlan[][] plansByJourney
+  ) {
+    this.journeyCodes = journeyCodes;
+    this.journeyIds = journeyIds;
+    this.formCodes = formCodes;
+    this.formIds = formIds;
+    this.formPlans = formPlans;
+    this.fieldCodes = fieldCodes;
+    this.fieldIds = fieldIds;
+    this.groupSlotsByJourney = groupSlotsByJourney;
+    this.plansByJourney = plansByJourney;
+  }
+
+  public static PreloadIndex empty() {
+    return EMPTY;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builder seeded with everything in {@code from} (ids, form plans, group plans), for targeted refreshes:
+   * replace only what changed, the rest of the compiled plans are reused as-is.
+   */
+  public static Builder builder(PreloadIndex from) {
+    Builder b = new Builder();
+    for (String jc : from.journeyCodes) {
+      int journeyId = b.internJourney(jc);
+      for (GroupValidationPlan plan : from.plansByJourney[journeyId]) b.groupPlan(journeyId, plan.groupNo(), plan);
+    }
+    for (String fc : from.formCodes) {
+      int formId = b.internForm(fc);
+      b.formPlan(formId, from.formPlans[formId]);
+    }
+    for (String fc : from.fieldCodes) b.internField(fc);
+    return b;
+  }
+
+  /**
+   * @return journeyId, or -1 if the journey is not loaded
+   */
+  public int journeyId(String journeyCode) {
+    return journeyIds.get(journeyCode);
+  }
+
+  /**
+   * @return formId, or -1 if the form is not loaded
+   */
+  public int formId(String formCode) {
+    return formIds.get(formCode);
+  }
+
+  /**
+   * @return fieldId, or -1 if no loaded form has this field
+   */
+  public int fieldId(String fieldCode) {
+    return fieldIds.get(fieldCode);
+  }
+
+  public GroupValidationPlan groupPlan(int journeyId, int groupNo) {
+    if (journeyId < 0 || journeyId >= plansByJourney.length) return null;
+    int slot = groupSlotsByJourney[journeyId].get(groupNo);
+    return slot < 0 ? null : plansByJourney[journeyId][slot];
+  }
+
+  public FormValidationPlan formPlan(int formId) {
+    if (formId < 0 || formId >= formPlans.length) return null;
+    return formPlans[formId];
+  }
+
+  public List<String> journeyCodes() {
+    return journeyCodes;
+  }
+
+  public List<String> formCodes() {
+    return formCodes;
+  }
+
+  public List<String> fieldCodes() {
+    return fieldCodes;
+  }
+
+  /**
+   * Build-time helper: intern codes in first-seen order, then freeze.
+   */
+  public static final class Builder {
+
+    private final Map<String, Integer> journeyIds = new HashMap<>();
+    private final List<String> journeyCodes = new ArrayList<>();
+    private final List<Map<Integer, GroupValidationPlan>> groupPlans = new ArrayList<>();
+
+    private final Map<String, Integer> formIds = new HashMap<>();
+    private final List<String> formCodes = new ArrayList<>();
+    private final List<FormValidationPlan> formPlans = new ArrayList<>();
+
+    private final Map<String, Integer> fieldIds = new HashMap<>();
+    private final List<String> fieldCodes = new ArrayList<>();
+
+    private Builder() {
+    }
+
+    public int internJourney(String journeyCode) {
+      Integer id = journeyIds.get(journeyCode);
+      if (id != null) return id;
+
+      int next = journeyCodes.size();
+      journeyIds.put(journeyCode, next);
+      journeyCodes.add(journeyCode);
+      groupPlans.add(new HashMap<>());
+      return next;
+    }
+
+    public int internForm(String formCode) {
+      Integer id = formIds.get(formCode);
+      if (id != null) return id;
+
+      int next = formCodes.size();
+      formIds.put(formCode, next);
+      formCodes.add(formCode);
+      formPlans.add(null);
+      return next;
+    }
+
+    public int internField(String fieldCode) {
+      Integer id = fieldIds.get(fieldCode);
+      if (id != null) return id;
+
+      int next = fieldCodes.size();
+      fieldIds.put(fieldCode, next);
+      fieldCodes.add(fieldCode);
+      return next;
+    }
+
+    /**
+     * The interned instance of this form code (first one seen).
+     */
+    public String formCode(int formId) {
+      return formCodes.get(formId);
+    }
+
+    /**
+     * The interned instance of this field code (first one seen).
+     */
+    public String fieldCode(int fieldId) {
+      return fieldCodes.get(fieldId);
+    }
+
+    public Builder formPlan(int formId, FormValidationPlan plan) {
+      formPlans.set(formId, plan);
+      return this;
+    }
+
+    public Builder groupPlan(int journeyId, int groupNo, GroupValidationPlan plan) {
+      groupPlans.get(journeyId).put(groupNo, plan);
+      return this;
+    }
+
+    public Builder clearGroupPlans(int journeyId) {
+      groupPlans.get(journeyId).clear();
+      return this;
+    }
+
+    public PreloadIndex build() {
+      int journeys = journeyCodes.size();
+      IntIndex[] slots = new IntIndex[journeys];
+      GroupValidationPlan[][] plans = new GroupValidationPlan[journeys][];
+
+      for (int j = 0; j < journeys; j++) {
+        Map<Integer, GroupValidationPlan> byNo = groupPlans.get(j);
+        IntIndex idx = new IntIndex(byNo.size());
+        GroupValidationPlan[] arr = new GroupValidationPlan[byNo.size()];
+
+        int slot = 0;
+        for (var e : byNo.entrySet()) {
+          idx.put(e.getKey(), slot);
+          arr[slot++] = e.getValue();
+        }
+        slots[j] = idx;
+        plans[j] = arr;
+      }
+
+      return new PreloadIndex(
+        List.copyOf(journeyCodes),
+        freeze(journeyIds),
+        List.copyOf(formCodes),
+        freeze(formIds),
+        formPlans.toArray(new FormValidationPlan[0]),
+        List.copyOf(fieldCodes),
+        freeze(fieldIds),
+        slots,
+        plans
+      );
+    }
+
+    private static CodeIndex freeze(Map<String, Integer> ids) {
+      CodeIndex idx = new CodeIndex(ids.size());
+      for (var e : ids.entrySet()) idx.put(e.getKey(), e.getValue());
+      return idx;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.bootleg.brevo.preload;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+@ConfigurationProperties(prefix = "brevo.preload")
+public record PreloadProperties(
+  Boolean listenEnabled,           // LISTEN for brevo_config change notifications
+  String listenChannel,            // must match the channel used by the triggers in scripts/ (plain lowercase identifier)
+  Duration listenDebounce,         // coalesce notifications within this window into one refresh
+  Boolean warmUpEnabled,           // refreshAll + journey plans at startup (readiness waits for it)
+  Duration refreshInterval,        // periodic refreshIfChanged(); zero/negative disables
+  String snapshotFile              // on-disk copy for fast cold start; blank disables
+) {
+  private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  public PreloadProperties {
+    if (listenEnabled == null) listenEnabled = true;
+    if (listenChannel == null || listenChannel.isBlank()) listenChannel = "brevo_config_changed";
+    // goes into LISTEN as a bare identifier: anything else would be case-folded or fail to parse
+    if (!CHANNEL.matcher(listenChannel).matches()) {
+      throw new IllegalArgumentException("brevo.preload.listen-channel must match [a-z_][a-z0-9_]*: " + listenChannel);
+    }
+    if (listenDebounce == null) listenDebounce = Duration.ofMillis(500);
+    if (warmUpEnabled == null) warmUpEnabled = true;
+    if (refreshInterval == null) refreshInterval = Duration.ofMinutes(1);
+  }
+}
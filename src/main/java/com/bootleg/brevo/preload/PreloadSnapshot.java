@@ -1,12 +1,24 @@
 package com.bootleg.brevo.preload;
 
+import com.bootleg.brevo.config.model.FieldDefinition;
 import com.bootleg.brevo.config.model.FieldRule;
 import com.bootleg.brevo.config.model.FieldType;
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import com.bootleg.brevo.validation.plan.GroupValidationPlan;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 
+/**
+ * What the store holds: the active journeys and the PreloadIndex (interned ids + compiled plans).
+ * <p>
+ * The string-keyed maps of the /config JSON view (groupForms, childForms, formFields, fieldMeta, fieldRules)
+ * are derived from the index when serialized, they are not kept in memory next to it.
+ */
 public record PreloadSnapshot(
   Instant loadedAt,
 
@@ -16,32 +28,92 @@ public record PreloadSnapshot(
   // Map<String, List<Integer>> JOURNEYGROUPS
   Map<String, List<Integer>> journeyGroups,
 
+  // interned, id-based lookups + compiled validation plans (hot path, not part of the JSON view)
+  @JsonIgnore
+  PreloadIndex index
+) {
+  public static PreloadSnapshot empty() {
+    return new PreloadSnapshot(
+      Instant.EPOCH,
+      List.of(),
+      Map.of(),
+      PreloadIndex.empty()
+    );
+  }
+
+  // ---------- JSON view (cold path, built per call) ----------
+
   // groupKey -> [forms] (child forms flattened too)
-  Map<String, List<String>> groupForms,
+  @JsonProperty
+  public Map<String, List<String>> groupForms() {
+    Map<String, List<String>> out = new TreeMap<>();
+    forEachGroupPlan(p -> out.put(PreloadKeys.groupKey(p.journeyCode(), p.groupNo()), p.formCodes()));
+    return out;
+  }
 
   // groupKey -> {parent: [childs]}
-  Map<String, Map<String, List<String>>> childForms,
+  @JsonProperty
+  public Map<String, Map<String, List<String>>> childForms() {
+    Map<String, Map<String, List<String>>> out = new TreeMap<>();
+    forEachGroupPlan(p -> out.put(PreloadKeys.groupKey(p.journeyCode(), p.groupNo()), p.childForms()));
+    return out;
+  }
 
   // form -> [fieldCodes]
-  Map<String, List<String>> formFields,
+  @JsonProperty
+  public Map<String, List<String>> formFields() {
+    Map<String, List<String>> out = new TreeMap<>();
+    forEachFormPlan(p -> out.put(p.formCode(), p.fields().stream().map(s -> s.field().fieldCode()).toList()));
+    return out;
+  }
 
   // fieldKey -> field meta (type/required/order)
-  Map<String, FieldMeta> fieldMeta,
+  @JsonProperty
+  public Map<String, FieldMeta> fieldMeta() {
+    Map<String, FieldMeta> out = new TreeMap<>();
+    forEachFormPlan(p -> {
+      for (FieldSlot slot : p.fields()) {
+        FieldDefinition fd = slot.field();
+        out.put(PreloadKeys.fieldKey(p.formCode(), fd.fieldCode()),
+          new FieldMeta(p.formCode(), fd.fieldCode(), fd.fieldType(), fd.required(), fd.sortOrder()));
+      }
+    });
+    return out;
+  }
 
   // fieldKey -> [rules]
-  Map<String, List<FieldRule>> fieldRules
-) {
-  public static PreloadSnapshot empty() {
-    return new PreloadSnapshot(
-      Instant.EPOCH,
-      List.of(),
-      Map.of(),
-      Map.of(),
-      Map.of(),
-      Map.of(),
-      Map.of(),
-      Map.of()
-    );
+  @JsonProperty
+  public Map<String, List<FieldRule>> fieldRules() {
+    Map<String, List<FieldRule>> out = new TreeMap<>();
+    forEachFormPlan(p -> {
+      for (FieldSlot slot : p.fields()) {
+        FieldDefinition fd = slot.field();
+        out.put(PreloadKeys.fieldKey(p.formCode(), fd.fieldCode()), fd.rules() == null ? List.of() : fd.rules());
+      }
+    });
+    return out;
+  }
+
+  private void forEachGroupPlan(Consumer<GroupValidationPlan> action) {
+    for (String journey : journeys) {
+      int journeyId = index.journeyId(journey);
+      for (int groupNo : journeyGroups.getOrDefault(journey, List.of())) {
+        GroupValidationPlan p = index.groupPlan(journeyId, groupNo);
+        if (p != null) action.accept(p);
+      }
+    }
+  }
+
+  // only forms used by a loaded group (the index may still hold plans of forms no group uses anymore)
+  private void forEachFormPlan(Consumer<FormValidationPlan> action) {
+    Set<String> seen = new HashSet<>();
+    forEachGroupPlan(g -> {
+      for (String formCode : g.formCodes()) {
+        if (!seen.add(formCode)) continue;
+        FormValidationPlan p = index.formPlan(index.formId(formCode));
+        if (p != null) action.accept(p);
+      }
+    });
   }
 
   public record FieldMeta(
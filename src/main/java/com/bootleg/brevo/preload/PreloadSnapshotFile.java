@@ -0,0 +1,338 @@
+package com.bootleg.brevo.preload;
+
+import com.bootleg.brevo.config.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk copy of the config a PreloadSnapshot is built from, for fast cold starts.
+ * <p>
+ * We persist the source (journeys, journey groups, GroupDefinitions) plus the brevo_config versions
+ * it was loaded with, not the compiled snapshot: plans are cheap to rebuild in memory, the DB queries are not.
+ * On boot the file is memory-mapped and assembled; PreloadStore then only needs one version probe
+ * to know whether the DB moved on.
+ * <p>
+ * Layout: MAGIC, FORMAT_VERSION, CRC32(body), body length, body. Any mismatch => file ignored.
+ * Bump FORMAT_VERSION whenever the config model changes shape.
+ * <p>
+ * The file feeds validation plans, so it is only trusted when it is a regular file (not a symlink) owned by
+ * the user the app runs as and not writable by group/others; it is written owner-only (POSIX file systems).
+ */
+@Slf4j
+@Component
+public class PreloadSnapshotFile {
+
+  private static final int MAGIC = 0x42525650; // "BRVP"
+  private static final int FORMAT_VERSION = 2;   // 2: FieldRule.value
+  private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+
+  private final PreloadProperties props;
+
+  public PreloadSnapshotFile(PreloadProperties props) {
+    this.props = props;
+  }
+
+  public boolean enabled() {
+    return props.snapshotFile() != null && !props.snapshotFile().isBlank();
+  }
+
+  // ---------- read ----------
+
+  public Optional<Contents> read() {
+    if (!enabled()) return Optional.empty();
+
+    Path path = Path.of(props.snapshotFile());
+    if (!Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) return Optional.empty();
+    if (!trusted(path)) return Optional.empty();
+
+    try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS)) {
+      ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+        log.info("Ignoring preload snapshot file {} (unknown format)", path);
+        return Optional.empty();
+      }
+
+      long crc = buf.getLong();
+      int len = buf.getInt();
+      if (len != buf.remaining()) {
+        log.warn("Ignoring preload snapshot file {} (truncated)", path);
+        return Optional.empty();
+      }
+
+      ByteBuffer body = buf.slice();
+      CRC32 crc32 = new CRC32();
+      crc32.update(body.duplicate());
+      if (crc32.getValue() != crc) {
+        log.warn("Ignoring preload snapshot file {} (checksum mismatch)", path);
+        return Optional.empty();
+      }
+
+      return Optional.of(readBody(body));
+    } catch (IOException | RuntimeException e) {
+      log.warn("Ignoring preload snapshot file {} (unreadable)", path, e);
+      return Optional.empty();
+    }
+  }
+
+  private static boolean trusted(Path path) {
+    if (!posix(path)) return true;
+
+    try {
+      PosixFileAttributes attrs = Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      UserPrincipal self = path.getFileSystem().getUserPrincipalLookupService()
+        .lookupPrincipalByName(System.getProperty("user.name"));
+
+      if (!attrs.owner().equals(self)) {
+        log.warn("Ignoring preload snapshot file {} (owned by {}, not {})", path, attrs.owner().getName(), self.getName());
+        return false;
+      }
+      Set<PosixFilePermission> perms = attrs.permissions();
+      if (perms.contains(PosixFilePermission.GROUP_WRITE) || perms.contains(PosixFilePermission.OTHERS_WRITE)) {
+        log.warn("Ignoring preload snapshot file {} (writable by group/others: {})",
+          path, PosixFilePermissions.toString(perms));
+        return false;
+      }
+      return true;
+    } catch (IOException e) {
+      log.warn("Ignoring preload snapshot file {} (cannot check owner/permissions)", path, e);
+      return false;
+    }
+  }
+
+  private static boolean posix(Path path) {
+    return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+  }
+
+  private static Contents readBody(ByteBuffer in) {
+    int n = in.getInt();
+    Map<String, String> versions = new HashMap<>();
+    for (int i = 0; i < n; i++) versions.put(readString(in), readString(in));
+
+    n = in.getInt();
+    List<String> journeys = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) journeys.add(readString(in));
+
+    n = in.getInt();
+    Map<String, List<Integer>> journeyGroups = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      String jc = readString(in);
+      int m = in.getInt();
+      List<Integer> groups = new ArrayList<>(m);
+      for (int k = 0; k < m; k++) groups.add(in.getInt());
+      journeyGroups.put(jc, List.copyOf(groups));
+    }
+
+    n = in.getInt();
+    Map<Integer, GroupDefinition> groupDefs = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      GroupDefinition gd = readGroup(in);
+      groupDefs.put(gd.groupNo(), gd);
+    }
+
+    return new Contents(List.copyOf(journeys), Map.copyOf(journeyGroups), Map.copyOf(groupDefs), Map.copyOf(versions));
+  }
+
+  private static GroupDefinition readGroup(ByteBuffer in) {
+    int groupNo = in.getInt();
+
+    int formCount = in.getInt();
+    List<FormDefinition> forms = new ArrayList<>(formCount);
+    for (int f = 0; f < formCount; f++) {
+      String formCode = readString(in);
+      int formSort = in.getInt();
+
+      int fieldCount = in.getInt();
+      List<FieldDefinition> fields = new ArrayList<>(fieldCount);
+      for (int d = 0; d < fieldCount; d++) {
+        String fieldCode = readString(in);
+        FieldType type = FieldType.valueOf(readString(in));
+        boolean required = in.get() != 0;
+        int fieldSort = in.getInt();
+
+        int ruleCount = in.getInt();
+        List<FieldRule> rules = new ArrayList<>(ruleCount);
+        for (int r = 0; r < ruleCount; r++) {
+          RuleKind kind = RuleKind.parse(readString(in));
+          rules.add(new FieldRule(kind, readDecimal(in), readDecimal(in), readNullableString(in)));
+        }
+        fields.add(new FieldDefinition(fieldCode, type, required, fieldSort, List.copyOf(rules)));
+      }
+      forms.add(new FormDefinition(formCode, formSort, List.copyOf(fields)));
+    }
+
+    int parents = in.getInt();
+    Map<String, List<String>> childMap = new HashMap<>();
+    for (int p = 0; p < parents; p++) {
+      String parent = readString(in);
+      int m = in.getInt();
+      List<String> kids = new ArrayList<>(m);
+      for (int k = 0; k < m; k++) kids.add(readString(in));
+      childMap.put(parent, List.copyOf(kids));
+    }
+
+    return new GroupDefinition(groupNo, List.copyOf(forms), Map.copyOf(childMap));
+  }
+
+  private static String readString(ByteBuffer in) {
+    int len = in.getInt();
+    byte[] b = new byte[len];
+    in.get(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  private static BigDecimal readDecimal(ByteBuffer in) {
+    return in.get() == 0 ? null : new BigDecimal(readString(in));
+  }
+
+  private static String readNullableString(ByteBuffer in) {
+    return in.get() == 0 ? null : readString(in);
+  }
+
+  // ---------- write ----------
+
+  /**
+   * Write atomically (temp file + move) so a crash never leaves a half-written file behind.
+   */
+  public void write(Contents c) {
+    if (!enabled()) return;
+
+    Path path = Path.of(props.snapshotFile());
+    try {
+      ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(16 * 1024);
+      writeBody(new DataOutputStream(bodyBytes), c);
+      byte[] body = bodyBytes.toByteArray();
+
+      CRC32 crc32 = new CRC32();
+      crc32.update(body);
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+        .putInt(MAGIC)
+        .putInt(FORMAT_VERSION)
+        .putLong(crc32.getValue())
+        .putInt(body.length)
+        .flip();
+
+      Path dir = path.toAbsolutePath().getParent();
+      if (dir != null && !Files.isDirectory(dir)) {
+        if (posix(dir)) Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        else Files.createDirectories(dir);
+      }
+
+      // createTempFile is owner-only (rw-------) on POSIX, and the rename keeps it
+      Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+      try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        ByteBuffer[] chunks = {header, ByteBuffer.wrap(body)};
+        while (chunks[1].hasRemaining()) ch.write(chunks);
+        ch.force(true);
+      }
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not write preload snapshot file {}", path, e);
+    }
+  }
+
+  private static void writeBody(DataOutputStream out, Contents c) throws IOException {
+    out.writeInt(c.versions().size());
+    for (var e : new TreeMap<>(c.versions()).entrySet()) {
+      writeString(out, e.getKey());
+      writeString(out, e.getValue());
+    }
+
+    out.writeInt(c.journeys().size());
+    for (String jc : c.journeys()) writeString(out, jc);
+
+    out.writeInt(c.journeyGroups().size());
+    for (var e : new TreeMap<>(c.journeyGroups()).entrySet()) {
+      writeString(out, e.getKey());
+      out.writeInt(e.getValue().size());
+      for (int g : e.getValue()) out.writeInt(g);
+    }
+
+    out.writeInt(c.groupDefs().size());
+    for (GroupDefinition gd : new TreeMap<>(c.groupDefs()).values()) writeGroup(out, gd);
+
+    out.flush();
+  }
+
+  private static void writeGroup(DataOutputStream out, GroupDefinition gd) throws IOException {
+    out.writeInt(gd.groupNo());
+
+    List<FormDefinition> forms = gd.forms() == null ? List.of() : gd.forms();
+    out.writeInt(forms.size());
+    for (FormDefinition f : forms) {
+      writeString(out, f.formCode());
+      out.writeInt(f.sortOrder());
+
+      List<FieldDefinition> fields = f.fields() == null ? List.of() : f.fields();
+      out.writeInt(fields.size());
+      for (FieldDefinition fd : fields) {
+        writeString(out, fd.fieldCode());
+        writeString(out, fd.fieldType().name());
+        out.writeByte(fd.required() ? 1 : 0);
+        out.writeInt(fd.sortOrder());
+
+        List<FieldRule> rules = fd.rules() == null ? List.of() : fd.rules();
+        out.writeInt(rules.size());
+        for (FieldRule r : rules) {
+          writeString(out, r.kind().name());
+          writeDecimal(out, r.min());
+          writeDecimal(out, r.max());
+          writeNullableString(out, r.value());
+        }
+      }
+    }
+
+    Map<String, List<String>> child = gd.childFormsByParent() == null ? Map.of() : gd.childFormsByParent();
+    out.writeInt(child.size());
+    for (var e : new TreeMap<>(child).entrySet()) {
+      writeString(out, e.getKey());
+      out.writeInt(e.getValue().size());
+      for (String c : e.getValue()) writeString(out, c);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(b.length);
+    out.write(b);
+  }
+
+  private static void writeDecimal(DataOutputStream out, BigDecimal d) throws IOException {
+    writeNullableString(out, d == null ? null : d.toString());
+  }
+
+  private static void writeNullableString(DataOutputStream out, String s) throws IOException {
+    if (s == null) {
+      out.writeByte(0);
+      return;
+    }
+    out.writeByte(1);
+    writeString(out, s);
+  }
+
+  /**
+   * What we persist: enough to rebuild a PreloadSnapshot without touching the DB.
+   */
+  public record Contents(
+    List<String> journeys,
+    Map<String, List<Integer>> journeyGroups,
+    Map<Integer, GroupDefinition> groupDefs,
+    Map<String, String> versions        // brevo_config table -> version counter at load time
+  ) {
+  }
+}
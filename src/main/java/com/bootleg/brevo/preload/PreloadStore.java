@@ -1,33 +1,58 @@
 package com.bootleg.brevo.preload;
 
 import com.bootleg.brevo.config.model.FieldDefinition;
-import com.bootleg.brevo.config.model.FieldRule;
 import com.bootleg.brevo.config.model.FormDefinition;
 import com.bootleg.brevo.config.model.GroupDefinition;
 import com.bootleg.brevo.config.repo.ConfigRepository;
+import com.bootleg.brevo.validation.plan.GroupValidationPlan;
+import com.bootleg.brevo.validation.plan.ValidationPlanCompiler;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 
+@Slf4j
 @Component
 public class PreloadStore {
 
+  /**
+   * brevo_config tables a targeted refresh re-reads; only their versions advance, the others keep the
+   * value stored by the last full refresh so a change outside the slice still reaches refreshIfChanged().
+   */
+  private static final Set<String> JOURNEY_TABLES = Set.of("journey_tm", "journey_group_tr");
+  private static final Set<String> GROUP_TABLES = Set.of(
+    "group_tm", "group_form_tr", "form_tm", "form_child_tr", "field_tm", "form_field_tr", "form_field_rule_tr");
+
+  // full refreshes that lose the swap to a targeted one reload instead of overwriting it
+  private static final int MAX_SWAP_ATTEMPTS = 3;
+
   private final ConfigRepository repo;
   private final GroupDefinitionLoader groupLoader;
+  private final ValidationPlanCompiler planCompiler;
+  private final PreloadSnapshotFile snapshotFile;
 
-  private final AtomicReference<PreloadSnapshot> snapshotRef =
-    new AtomicReference<>(PreloadSnapshot.empty());
+  /**
+   * Snapshot + the source it was built from (kept so targeted refreshes can copy-on-write one slice).
+   */
+  private final AtomicReference<Loaded> loadedRef =
+    new AtomicReference<>(Loaded.EMPTY);
 
   private final AtomicReference<Mono<PreloadSnapshot>> refreshInFlight =
     new AtomicReference<>();
 
-  public PreloadStore(ConfigRepository repo, GroupDefinitionLoader groupLoader) {
+  public PreloadStore(ConfigRepository repo,
+                      GroupDefinitionLoader groupLoader,
+                      ValidationPlanCompiler planCompiler,
+                      PreloadSnapshotFile snapshotFile) {
     this.repo = repo;
     this.groupLoader = groupLoader;
+    this.planCompiler = planCompiler;
+    this.snapshotFile = snapshotFile;
   }
 
   private static List<String> flattenForms(List<FormDefinition> forms, Map<String, List<String>> child) {
@@ -60,7 +85,15 @@ public class PreloadStore {
    * Hot path: safe under heavy read traffic.
    */
   public PreloadSnapshot current() {
-    return snapshotRef.get();
+    return loadedRef.get().snapshot();
+  }
+
+  /**
+   * True once a snapshot is in place, from the DB or from the on-disk file (even if no journey is active).
+   * Used by the readiness health check.
+   */
+  public boolean isLoaded() {
+    return loadedRef.get() != Loaded.EMPTY;
   }
 
   /**
@@ -70,8 +103,9 @@ public class PreloadStore {
     Mono<PreloadSnapshot> existing = refreshInFlight.get();
     if (existing != null) return existing;
 
-    Mono<PreloadSnapshot> job = buildSnapshotFromDb()
-      .doOnNext(snapshotRef::set)
+    Mono<PreloadSnapshot> job = loadAndSwap()
+      .doOnNext(this::persist)
+      .map(Loaded::snapshot)
       .doFinally(sig -> refreshInFlight.set(null))
       .cache();
 
@@ -79,93 +113,289 @@ public class PreloadStore {
     return refreshInFlight.get();
   }
 
-  private Mono<PreloadSnapshot> buildSnapshotFromDb() {
-    return repo.findActiveJourneyCodes()
+  /**
+   * Cold start: install the snapshot persisted by the last full refresh, if any.
+   * Only applies while nothing is loaded yet; the caller is expected to follow up with refreshIfChanged().
+   * Blocking file I/O, call it off the event loop.
+   */
+  public boolean restoreFromFile() {
+    Optional<PreloadSnapshotFile.Contents> contents = snapshotFile.read();
+    if (contents.isEmpty()) return false;
+
+    PreloadSnapshotFile.Contents c = contents.get();
+    Loaded restored = assemble(c.journeys(), c.journeyGroups(), c.groupDefs(), c.versions());
+    if (!loadedRef.compareAndSet(Loaded.EMPTY, restored)) return false;
+
+    log.info("Preload restored from file: {} journeys", restored.journeys().size());
+    return true;
+  }
+
+  /**
+   * Periodic path: one cheap version probe on brevo_config (a single-row read).
+   * No-op (returns current snapshot) when nothing changed since the last refresh (full or targeted).
+   */
+  public Mono<PreloadSnapshot> refreshIfChanged() {
+    return repo.findConfigVersions()
+      .flatMap(versions -> versions.equals(loadedRef.get().versions())
+        ? Mono.just(current())
+        : refreshAll());
+  }
+
+  /**
+   * Targeted refresh: reload only this journey's groups and swap them in (copy-on-write).
+   * A journey that is no longer active (or has no groups) is dropped from the snapshot.
+   * <p>
+   * Targeted refreshes re-probe the versions before reading their slice and store the versions of the
+   * slice's tables (JOURNEY_TABLES / GROUP_TABLES): otherwise the very change being applied would make the
+   * next refreshIfChanged() reload everything. Versions of the other tables are kept as they were.
+   */
+  public Mono<PreloadSnapshot> refreshJourney(String journeyCode) {
+    return repo.findConfigVersions()
+      .flatMap(versions -> applyJourney(journeyCode, versions))
+      .map(Loaded::snapshot);
+  }
+
+  /**
+   * Targeted refresh: reload one group (forms/fields/rules) for every journey that uses it.
+   */
+  public Mono<PreloadSnapshot> refreshGroup(int groupNo) {
+    return repo.findConfigVersions()
+      .flatMap(versions -> groupLoader.load(groupNo)
+        .map(def -> loadedRef.updateAndGet(prev -> withGroups(prev, Map.of(groupNo, def), versions))))
+      .map(Loaded::snapshot);
+  }
+
+  /**
+   * Apply a batch of change notifications (see ConfigChangeListener).
+   * Forms/fields are mapped to the loaded groups that use them; anything unknown => full refresh.
+   */
+  public Mono<PreloadSnapshot> refresh(ConfigChangeSet changes) {
+    if (changes.all()) return refreshAll();
+
+    Loaded loaded = loadedRef.get();
+    Set<Integer> groupNos = new TreeSet<>(changes.groupNos());
+    for (GroupDefinition gd : loaded.groupDefs().values()) {
+      if (usesAny(gd, changes.formCodes(), changes.fieldCodes())) groupNos.add(gd.groupNo());
+    }
+
+    if (changes.journeyCodes().isEmpty() && groupNos.isEmpty()) return Mono.just(loaded.snapshot());
+
+    // one version probe for the whole batch
+    return repo.findConfigVersions()
+      .flatMap(versions -> Flux.fromIterable(changes.journeyCodes())
+        .concatMap(jc -> applyJourney(jc, versions))
+        .then(groupNos.isEmpty() ? Mono.<Loaded>empty() : loadGroups(groupNos)
+          .map(defs -> loadedRef.updateAndGet(prev -> withGroups(prev, defs, versions))))
+        .then(Mono.fromSupplier(this::current)));
+  }
+
+  private Mono<Loaded> applyJourney(String journeyCode, Map<String, String> versions) {
+    return repo.findGroupNosByJourneyCode(journeyCode)
       .collectList()
-      .flatMap(journeys -> {
-        if (journeys.isEmpty()) {
-          return Mono.just(PreloadSnapshot.empty());
-        }
-
-        // journey -> groupNos (from DB)
-        return Flux.fromIterable(journeys)
-          .flatMap(journeyCode ->
-              repo.findGroupNosByJourneyCode(journeyCode).collectList()
-                .map(groupNos -> Map.entry(journeyCode, List.copyOf(groupNos)))
-            , 4)
-          .collectMap(Map.Entry::getKey, Map.Entry::getValue)
-          .flatMap(journeyGroups -> {
-
-            // unique groupNos to load once
-            Set<Integer> allGroupNos = new TreeSet<>();
-            for (List<Integer> gns : journeyGroups.values()) allGroupNos.addAll(gns);
-
-            return Flux.fromIterable(allGroupNos)
-              .flatMap(groupNo ->
-                  groupLoader.load(groupNo).map(def -> Map.entry(groupNo, def)),
-                6)
-              .collectMap(Map.Entry::getKey, Map.Entry::getValue)
-              .map(groupDefByNo -> buildSnapshot(
-                journeys,
-                journeyGroups,
-                groupDefByNo
-              ));
-          });
-      });
+      .flatMap(groupNos -> loadGroups(groupNos)
+        .map(defs -> loadedRef.updateAndGet(prev -> withJourney(prev, journeyCode, groupNos, defs, versions))));
   }
 
-  private PreloadSnapshot buildSnapshot(
+  /**
+   * Write-behind: only full refreshes are persisted, their versions are known to match the content.
+   */
+  private void persist(Loaded loaded) {
+    if (!snapshotFile.enabled()) return;
+
+    Mono.fromRunnable(() -> snapshotFile.write(new PreloadSnapshotFile.Contents(
+        loaded.journeys(),
+        loaded.journeyGroups(),
+        loaded.groupDefs(),
+        loaded.versions()
+      )))
+      .subscribeOn(Schedulers.boundedElastic())
+      .subscribe();
+  }
+
+  private static boolean usesAny(GroupDefinition gd, Set<String> formCodes, Set<String> fieldCodes) {
+    if (formCodes.isEmpty() && fieldCodes.isEmpty()) return false;
+
+    // child forms are flattened into gd.forms(), and a new child is reported as FORM:<parent>
+    for (FormDefinition f : gd.forms()) {
+      if (formCodes.contains(f.formCode())) return true;
+      if (fieldCodes.isEmpty() || f.fields() == null) continue;
+      for (FieldDefinition fd : f.fields()) {
+        if (fieldCodes.contains(fd.fieldCode())) return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Swap only if nothing else (a targeted refresh) replaced the Loaded this load started from,
+   * so a slower full load never rolls back a newer slice; otherwise load again.
+   */
+  private Mono<Loaded> loadAndSwap() {
+    return Mono.defer(() -> {
+        Loaded start = loadedRef.get();
+        return loadAllFromDb().filter(loaded -> loadedRef.compareAndSet(start, loaded));
+      })
+      .repeatWhenEmpty(MAX_SWAP_ATTEMPTS, attempts -> attempts);
+  }
+
+  private Mono<Loaded> loadAllFromDb() {
+    // Probe first: anything that changes while we load is picked up by the next refreshIfChanged()
+    return repo.findConfigVersions()
+      .flatMap(versions -> Mono.zip(
+          repo.findActiveJourneyCodes().collectList(),
+          repo.findActiveJourneyGroups().collectList(),
+          groupLoader.loadAllActive()
+        )
+        .map(t -> {
+          List<String> journeys = t.getT1();
+
+          // journey -> groupNos (active journeys without groups keep an empty list)
+          Map<String, List<Integer>> journeyGroups = new HashMap<>();
+          for (String jc : journeys) journeyGroups.put(jc, new ArrayList<>());
+          for (ConfigRepository.JourneyGroupRow r : t.getT2()) {
+            journeyGroups.computeIfAbsent(r.journeyCode(), k -> new ArrayList<>()).add(r.groupNo());
+          }
+
+          return assemble(journeys, journeyGroups, t.getT3(), versions);
+        }));
+  }
+
+  private Mono<Map<Integer, GroupDefinition>> loadGroups(Collection<Integer> groupNos) {
+    return Flux.fromIterable(groupNos)
+      .flatMap(groupNo ->
+          groupLoader.load(groupNo).map(def -> Map.entry(groupNo, def)),
+        6)
+      .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+  }
+
+  private Loaded withJourney(
+    Loaded prev,
+    String journeyCode,
+    List<Integer> groupNos,
+    Map<Integer, GroupDefinition> defs,
+    Map<String, String> versions
+  ) {
+    TreeSet<String> journeys = new TreeSet<>(prev.journeys());
+    Map<String, List<Integer>> journeyGroups = new HashMap<>(prev.journeyGroups());
+    Map<Integer, GroupDefinition> replan = new HashMap<>(defs);
+
+    PreloadIndex.Builder index = PreloadIndex.builder(prev.snapshot().index());
+    index.clearGroupPlans(index.internJourney(journeyCode));
+
+    if (groupNos.isEmpty()) {
+      journeys.remove(journeyCode);
+      journeyGroups.remove(journeyCode);
+    } else {
+      journeys.add(journeyCode);
+      journeyGroups.put(journeyCode, List.copyOf(groupNos));
+      // a group that did not load keeps its previous definition
+      for (int g : groupNos) {
+        GroupDefinition old = prev.groupDefs().get(g);
+        if (old != null) replan.putIfAbsent(g, old);
+      }
+    }
+
+    return withPlans(prev, List.copyOf(journeys), journeyGroups, replan, index,
+      advance(prev.versions(), versions, JOURNEY_TABLES));
+  }
+
+  private Loaded withGroups(Loaded prev, Map<Integer, GroupDefinition> defs, Map<String, String> versions) {
+    PreloadIndex.Builder index = PreloadIndex.builder(prev.snapshot().index());
+    return withPlans(prev, prev.journeys(), prev.journeyGroups(), defs, index,
+      advance(prev.versions(), versions, GROUP_TABLES));
+  }
+
+  private static Map<String, String> advance(Map<String, String> prev, Map<String, String> probed, Set<String> tables) {
+    Map<String, String> out = new HashMap<>(prev);
+    for (String table : tables) {
+      String v = probed.get(table);
+      if (v != null) out.put(table, v);
+    }
+    return Map.copyOf(out);
+  }
+
+  /**
+   * Copy-on-write for targeted refreshes: only the (journey, group) entries of the reloaded groups are
+   * re-planned and only their forms recompiled; every other compiled plan is reused from prev.
+   */
+  private Loaded withPlans(
+    Loaded prev,
     List<String> journeys,
     Map<String, List<Integer>> journeyGroups,
-    Map<Integer, GroupDefinition> groupDefByNo
+    Map<Integer, GroupDefinition> defs,
+    PreloadIndex.Builder index,
+    Map<String, String> versions
   ) {
-    Map<String, List<String>> groupForms = new HashMap<>();
-    Map<String, Map<String, List<String>>> childForms = new HashMap<>();
-    Map<String, List<String>> formFields = new HashMap<>();
-    Map<String, PreloadSnapshot.FieldMeta> fieldMeta = new HashMap<>();
-    Map<String, List<FieldRule>> fieldRules = new HashMap<>();
-
-    // per journey/group -> forms + child mapping
+    Set<Integer> compiled = new HashSet<>();
     for (String journey : journeys) {
-      List<Integer> groups = journeyGroups.getOrDefault(journey, List.of());
-      for (int groupNo : groups) {
-        GroupDefinition gd = groupDefByNo.get(groupNo);
-        if (gd == null) continue;
-
-        String gk = PreloadKeys.groupKey(journey, groupNo);
+      int journeyId = index.internJourney(journey);
+      for (int g : journeyGroups.getOrDefault(journey, List.of())) {
+        GroupDefinition gd = defs.get(g);
+        if (gd != null) planGroup(index, journeyId, journey, g, gd, compiled);
+      }
+    }
 
-        Map<String, List<String>> child = gd.childFormsByParent() == null ? Map.of() : gd.childFormsByParent();
-        childForms.put(gk, freezeChild(child));
+    Map<Integer, GroupDefinition> groupDefs = new HashMap<>(prev.groupDefs());
+    groupDefs.putAll(defs);
 
-        // forms: ordered + flatten children after their parent
-        groupForms.put(gk, flattenForms(gd.forms(), child));
+    return new Loaded(
+      List.copyOf(journeys),
+      freezeJourneyGroups(journeyGroups),
+      usedGroups(journeyGroups, groupDefs),
+      versions,
+      new PreloadSnapshot(Instant.now(), List.copyOf(journeys), freezeJourneyGroups(journeyGroups), index.build())
+    );
+  }
 
-        // also populate formFields + field meta/rules (global by formCode)
-        for (FormDefinition f : gd.forms()) {
-          String formCode = f.formCode();
+  private Loaded assemble(
+    List<String> journeys,
+    Map<String, List<Integer>> journeyGroups,
+    Map<Integer, GroupDefinition> groupDefs,
+    Map<String, String> versions
+  ) {
+    Map<Integer, GroupDefinition> used = usedGroups(journeyGroups, groupDefs);
 
-          List<FieldDefinition> fields = f.fields() == null ? List.of() : f.fields();
-          List<String> fieldCodes = fields.stream()
-            .sorted(Comparator.comparingInt(FieldDefinition::sortOrder))
-            .map(FieldDefinition::fieldCode)
-            .toList();
+    PreloadSnapshot snapshot = journeys.isEmpty()
+      ? PreloadSnapshot.empty()
+      : buildSnapshot(journeys, journeyGroups, used);
 
-          formFields.put(formCode, fieldCodes);
+    return new Loaded(
+      List.copyOf(journeys),
+      freezeJourneyGroups(journeyGroups),
+      used,
+      versions,
+      snapshot
+    );
+  }
 
-          for (FieldDefinition fd : fields) {
-            String fk = PreloadKeys.fieldKey(formCode, fd.fieldCode());
+  // keep only groups still referenced by a journey
+  private static Map<Integer, GroupDefinition> usedGroups(
+    Map<String, List<Integer>> journeyGroups,
+    Map<Integer, GroupDefinition> groupDefs
+  ) {
+    Map<Integer, GroupDefinition> used = new HashMap<>();
+    for (List<Integer> gns : journeyGroups.values()) {
+      for (int g : gns) {
+        GroupDefinition gd = groupDefs.get(g);
+        if (gd != null) used.put(g, gd);
+      }
+    }
+    return Map.copyOf(used);
+  }
 
-            fieldMeta.put(fk, new PreloadSnapshot.FieldMeta(
-              formCode,
-              fd.fieldCode(),
-              fd.fieldType(),
-              fd.required(),
-              fd.sortOrder()
-            ));
+  private PreloadSnapshot buildSnapshot(
+    List<String> journeys,
+    Map<String, List<Integer>> journeyGroups,
+    Map<Integer, GroupDefinition> groupDefByNo
+  ) {
+    PreloadIndex.Builder index = PreloadIndex.builder();
+    Set<Integer> compiled = new HashSet<>();
 
-            fieldRules.put(fk, fd.rules() == null ? List.of() : List.copyOf(fd.rules()));
-          }
-        }
+    for (String journey : journeys) {
+      int journeyId = index.internJourney(journey);
+      for (int groupNo : journeyGroups.getOrDefault(journey, List.of())) {
+        GroupDefinition gd = groupDefByNo.get(groupNo);
+        if (gd != null) planGroup(index, journeyId, journey, groupNo, gd, compiled);
       }
     }
 
@@ -173,11 +403,72 @@ public class PreloadStore {
       Instant.now(),
       List.copyOf(journeys),
       freezeJourneyGroups(journeyGroups),
-      Map.copyOf(groupForms),
-      Map.copyOf(childForms),
-      Map.copyOf(formFields),
-      Map.copyOf(fieldMeta),
-      Map.copyOf(fieldRules)
+      index.build()
     );
   }
+
+  /**
+   * One (journey, group): allowed forms + child mapping. Form plans are global by formCode and compiled
+   * at most once per build (compiled = formIds already compiled in this build).
+   */
+  private void planGroup(
+    PreloadIndex.Builder index,
+    int journeyId,
+    String journey,
+    int groupNo,
+    GroupDefinition gd,
+    Set<Integer> compiled
+  ) {
+    for (FormDefinition f : gd.forms()) {
+      int formId = index.internForm(f.formCode());
+      if (compiled.add(formId)) index.formPlan(formId, planCompiler.compileForm(intern(f, index)));
+    }
+
+    Map<String, List<String>> child = gd.childFormsByParent() == null ? Map.of() : gd.childFormsByParent();
+
+    // forms: ordered + flatten children after their parent
+    List<String> forms = new ArrayList<>();
+    BitSet allowed = new BitSet();
+    for (String fc : flattenForms(gd.forms(), child)) {
+      int formId = index.internForm(fc);
+      forms.add(index.formCode(formId));
+      allowed.set(formId);
+    }
+
+    index.groupPlan(journeyId, groupNo, new GroupValidationPlan(
+      journey,
+      groupNo,
+      List.copyOf(forms),
+      allowed,
+      freezeChild(child)
+    ));
+  }
+
+  /**
+   * Same form, with its codes replaced by the interned instances (one String per code across all plans).
+   */
+  private static FormDefinition intern(FormDefinition f, PreloadIndex.Builder index) {
+    List<FieldDefinition> fields = f.fields() == null ? List.of() : f.fields();
+    List<FieldDefinition> out = new ArrayList<>(fields.size());
+    for (FieldDefinition fd : fields) {
+      out.add(new FieldDefinition(
+        index.fieldCode(index.internField(fd.fieldCode())),
+        fd.fieldType(),
+        fd.required(),
+        fd.sortOrder(),
+        fd.rules() == null ? List.of() : List.copyOf(fd.rules())
+      ));
+    }
+    return new FormDefinition(index.formCode(index.internForm(f.formCode())), f.sortOrder(), out);
+  }
+
+  private record Loaded(
+    List<String> journeys,
+    Map<String, List<Integer>> journeyGroups,
+    Map<Integer, GroupDefinition> groupDefs,
+    Map<String, String> versions,        // brevo_config table -> version counter at load time
+    PreloadSnapshot snapshot
+  ) {
+    static final Loaded EMPTY = new Loaded(List.of(), Map.of(), Map.of(), Map.of(), PreloadSnapshot.empty());
+  }
 }
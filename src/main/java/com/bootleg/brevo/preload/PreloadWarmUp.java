@@ -0,0 +1,86 @@
+package com.bootleg.brevo.preload;
+
+import com.bootleg.brevo.runtime.service.JourneyPlanService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Startup warm-up + periodic background refresh.
+ * <p>
+ * - At startup: restore the snapshot file written by the last full refresh (see PreloadSnapshotFile) and
+ * only verify it with refreshIfChanged(); without a usable file, refreshAll(). Both are retried with backoff
+ * until the DB answers. Then pre-load the JourneyPlan of every active journey so the first session per
+ * journey does not pay the DB cost.
+ * - Then every {@code brevo.preload.refresh-interval}: refreshIfChanged() (a no-op when nothing changed).
+ * <p>
+ * Readiness (PreloadHealthIndicator) stays DOWN until a snapshot is in place (restored file or first refresh).
+ */
+@Slf4j
+@Component
+public class PreloadWarmUp implements ApplicationRunner {
+
+  private final PreloadStore preloadStore;
+  private final JourneyPlanService journeyPlanService;
+  private final PreloadProperties props;
+
+  private volatile Disposable subscription;
+
+  public PreloadWarmUp(PreloadStore preloadStore,
+                       JourneyPlanService journeyPlanService,
+                       PreloadProperties props) {
+    this.preloadStore = preloadStore;
+    this.journeyPlanService = journeyPlanService;
+    this.props = props;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    Mono<Void> warmUp = !props.warmUpEnabled() ? Mono.empty() : Mono.fromCallable(preloadStore::restoreFromFile)
+      .subscribeOn(Schedulers.boundedElastic())
+      .onErrorReturn(false)
+      .flatMap(restored -> (restored ? preloadStore.refreshIfChanged() : preloadStore.refreshAll())
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+          .maxBackoff(Duration.ofSeconds(30))
+          .doBeforeRetry(sig -> log.warn("Preload warm-up failed, retrying", sig.failure()))))
+      .flatMap(this::warmJourneyPlans)
+      .doOnSuccess(v -> log.info("Preload warm-up done: {} journeys", preloadStore.current().journeys().size()));
+
+    Duration every = props.refreshInterval();
+    Flux<PreloadSnapshot> periodic = every.isZero() || every.isNegative() ? Flux.empty()
+      : Flux.interval(every, every)
+      .onBackpressureDrop()
+      .concatMap(tick -> preloadStore.refreshIfChanged()
+        .onErrorResume(e -> {
+          log.warn("Periodic preload refresh failed", e);
+          return Mono.empty();
+        }));
+
+    subscription = warmUp.thenMany(periodic).subscribe();
+  }
+
+  @PreDestroy
+  public void stop() {
+    Disposable d = subscription;
+    if (d != null) d.dispose();
+  }
+
+  private Mono<Void> warmJourneyPlans(PreloadSnapshot snap) {
+    return Flux.fromIterable(snap.journeys())
+      .flatMap(jc -> journeyPlanService.warmUp(jc)
+        .onErrorResume(e -> {
+          log.warn("Journey plan warm-up failed for {}", jc, e);
+          return Mono.empty();
+        }), 4)
+      .then();
+  }
+}
@@ -6,9 +6,50 @@ import java.time.Duration;
 
 @ConfigurationProperties(prefix = "obs.runtime")
 public record ObsRuntimeProperties(
-  Duration sessionTtl
+  Duration sessionTtl,
+  Integer planCacheMaxSize,          // JourneyPlan cache: max journeys kept (bounds garbage journeyCodes)
+  Duration planCacheTtl,             // JourneyPlan cache: hard expiry after load
+  Duration planCacheRefresh,         // JourneyPlan cache: background reload after this (stale served meanwhile)
+  Duration planCacheNegativeTtl,     // JourneyPlan cache: expiry of "journey has no groups"
+  SubmitMode submitMode,
+  Integer optimisticMaxRetries,      // OPTIMISTIC submit: retries on version conflict before 409
+  SessionStoreType sessionStore,
+  Duration touchGranularity,         // postgres sessions: write a touch only once expiry moved this much; zero = every touch
+  Duration touchFlushInterval,       // postgres sessions: batched touch flush period
+  Duration reaperInterval,           // expire due ACTIVE rows every ... (both session stores); zero disables
+  Integer reaperBatchSize,           // rows per reaper statement
+  Integer reaperMaxBatches,          // statements per run (bounds one run, the rest waits for the next)
+  Duration reaperDeleteAfter,        // delete non-ACTIVE rows untouched for this long; zero keeps them
+  Integer snapshotCacheMaxSize,      // stored-groups read model: max application versions kept locally
+  Duration snapshotCacheTtl,         // stored-groups read model: local expire-after-access / Redis TTL
+  Boolean snapshotCacheRedis,        // stored-groups read model: Redis second tier shared by all pods
+  Boolean eventsRedis,               // application event stream: fan out across pods via Redis pub/sub
+  Duration eventsHeartbeat           // application event stream: SSE keep-alive comment period
 ) {
   public ObsRuntimeProperties {
     if (sessionTtl == null) sessionTtl = Duration.ofMinutes(30);
+    if (planCacheMaxSize == null) planCacheMaxSize = 1_000;
+    if (planCacheTtl == null) planCacheTtl = Duration.ofMinutes(30);
+    if (planCacheRefresh == null) planCacheRefresh = Duration.ofMinutes(5);
+    if (planCacheNegativeTtl == null) planCacheNegativeTtl = Duration.ofSeconds(10);
+    if (submitMode == null) submitMode = SubmitMode.LOCKING;
+    if (optimisticMaxRetries == null) optimisticMaxRetries = 3;
+    if (sessionStore == null) sessionStore = SessionStoreType.POSTGRES;
+    if (touchGranularity == null) touchGranularity = Duration.ofMinutes(1);
+    if (touchFlushInterval == null) touchFlushInterval = Duration.ofSeconds(5);
+    if (reaperInterval == null) reaperInterval = Duration.ofMinutes(1);
+    if (reaperBatchSize == null) reaperBatchSize = 500;
+    if (reaperMaxBatches == null) reaperMaxBatches = 20;
+    if (reaperDeleteAfter == null) reaperDeleteAfter = Duration.ZERO;
+    if (snapshotCacheMaxSize == null) snapshotCacheMaxSize = 10_000;
+    if (snapshotCacheTtl == null) snapshotCacheTtl = Duration.ofMinutes(10);
+    if (snapshotCacheRedis == null) snapshotCacheRedis = false;
+    if (eventsRedis == null) eventsRedis = false;
+    if (eventsHeartbeat == null) eventsHeartbeat = Duration.ofSeconds(15);
+
+    // obs_submit_group reads/touches obs_session itself
+    if (submitMode == SubmitMode.SINGLE_STATEMENT && sessionStore != SessionStoreType.POSTGRES) {
+      throw new IllegalArgumentException("obs.runtime.submit-mode=single-statement needs session-store=postgres");
+    }
   }
 }
@@ -0,0 +1,9 @@
+package com.bootleg.brevo.runtime.config;
+
+/**
+ * Backing store of ACTIVE sessions (see runtime.session.SessionStore).
+ */
+public enum SessionStoreType {
+  POSTGRES,           // obs_session rows, every touch is an UPDATE
+  REDIS               // Redis keys with native TTL, obs_session written on create/expire only
+}
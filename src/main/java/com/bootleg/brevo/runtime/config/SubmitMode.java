@@ -0,0 +1,10 @@
+package com.bootleg.brevo.runtime.config;
+
+/**
+ * How ObsRuntimeService.submitGroup talks to the DB.
+ */
+public enum SubmitMode {
+  LOCKING,            // one statement per step inside a transaction, application row locked (FOR UPDATE)
+  OPTIMISTIC,         // no lock: conditional UPDATE on obs_application.version, bounded retry, 409 on contention
+  SINGLE_STATEMENT    // bootleg_runtime.obs_submit_group(...) from scripts/brevo_runtime_submit.sql
+}
@@ -1,17 +1,25 @@
 package com.bootleg.brevo.runtime.controller;
 
+import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
+import com.bootleg.brevo.runtime.event.ApplicationEvent;
 import com.bootleg.brevo.runtime.service.ObsRuntimeService;
+import com.bootleg.brevo.validation.ValidationError;
 import com.fasterxml.jackson.annotation.JsonAlias;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -19,9 +27,11 @@ import java.util.UUID;
 public class ObsRuntimeController {
 
   private final ObsRuntimeService runtimeService;
+  private final ObsRuntimeProperties props;
 
-  public ObsRuntimeController(ObsRuntimeService runtimeService) {
+  public ObsRuntimeController(ObsRuntimeService runtimeService, ObsRuntimeProperties props) {
     this.runtimeService = runtimeService;
+    this.props = props;
   }
 
 //  @PostMapping("/sessions")
@@ -64,40 +74,87 @@ public class ObsRuntimeController {
       r.applicationStatus(),
       r.sessionExpiresAt(),
       r.nextGroupNo(),
-      r.groups().stream()
-        .map(g -> new GroupSnapshot(
-          String.valueOf(g.groupNo()),
-          g.groupNo(),
-          g.status(),
-          g.validateResult(),
-          g.payload()
-        ))
-        .toList()
+      r.groups().stream().map(ObsRuntimeController::toGroupSnapshot).toList()
     ));
   }
 
 
+  /**
+   * Current snapshot.
+   * - fields=status => statuses only (payload column not even read)
+   * - groups=3,4    => only these groups
+   * - ETag / If-None-Match => 304 without building the snapshot when nothing changed
+   * - X-OBS-SESSION-EXPIRES-AT header (also on 304): the fresh expiry when the body is not re-sent
+   */
   @GetMapping("/sessions/{sessionId}/current")
-  public Mono<CurrentResponse> current(@PathVariable UUID sessionId) {
-    return runtimeService.getCurrent(sessionId)
-      .map(r -> new CurrentResponse(
-        r.sessionId(),
-        r.applicationId(),
-        r.journeyCode(),
-        r.currentGroupNo(),
-        r.applicationStatus(),
-        r.sessionExpiresAt(),
-        r.nextGroupNo(),
-        r.groups().stream()
-          .map(g -> new GroupSnapshot(
-            String.valueOf(g.groupNo()),
-            g.groupNo(),
-            g.status(),
-            g.validateResult(),
-            g.payload()
-          ))
-          .toList()
-      ));
+  public Mono<ResponseEntity<CurrentResponse>> current(
+    @PathVariable UUID sessionId,
+    @RequestParam(name = "fields", required = false) List<String> fields,
+    @RequestParam(name = "groups", required = false) Set<Integer> groups,
+    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch
+  ) {
+    boolean includePayload = fields == null || fields.isEmpty() || fields.contains("payload");
+    ObsRuntimeService.SnapshotView view = new ObsRuntimeService.SnapshotView(includePayload, groups);
+
+    return runtimeService.getCurrent(sessionId, view, ifNoneMatch)
+      .map(c -> {
+        if (c.result() == null) {
+          return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(c.etag())
+            .header("X-OBS-SESSION-EXPIRES-AT", c.sessionExpiresAt().toString())
+            .<CurrentResponse>build();
+        }
+
+        ObsRuntimeService.CurrentResult r = c.result();
+        return ResponseEntity.ok()
+          .eTag(c.etag())
+          .header("X-OBS-SESSION-EXPIRES-AT", c.sessionExpiresAt().toString())
+          .body(new CurrentResponse(
+            r.sessionId(),
+            r.applicationId(),
+            r.journeyCode(),
+            r.currentGroupNo(),
+            r.applicationStatus(),
+            r.sessionExpiresAt(),
+            r.nextGroupNo(),
+            r.groups().stream().map(ObsRuntimeController::toGroupSnapshot).toList()
+          ));
+      });
+  }
+
+  /**
+   * One group's stored payload (status MISSING if never submitted).
+   */
+  @GetMapping("/sessions/{sessionId}/groups/{groupCode}")
+  public Mono<GroupSnapshot> group(@PathVariable UUID sessionId, @PathVariable String groupCode) {
+    return runtimeService.getGroup(sessionId, groupCode)
+      .map(ObsRuntimeController::toGroupSnapshot);
+  }
+
+  /**
+   * Server-sent events instead of polling /current:
+   * GROUP_STATUS, PROGRESS, SESSION_RENEWED, SUPERSEDED (event name = type), plus keep-alive comments.
+   * Best effort: after a reconnect, read /current once to catch up.
+   */
+  @GetMapping(path = "/sessions/{sessionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<ApplicationEvent>> events(@PathVariable UUID sessionId) {
+    Flux<ServerSentEvent<ApplicationEvent>> keepAlive = Flux.interval(props.eventsHeartbeat())
+      .map(tick -> ServerSentEvent.<ApplicationEvent>builder().comment("keep-alive").build());
+
+    return runtimeService.events(sessionId)
+      .map(e -> ServerSentEvent.builder(e).event(e.type().name()).build())
+      .mergeWith(keepAlive);
+  }
+
+  private static GroupSnapshot toGroupSnapshot(ObsRuntimeService.GroupSnapshotRow g) {
+    return new GroupSnapshot(
+      String.valueOf(g.groupNo()),
+      g.groupNo(),
+      g.status(),
+      g.validateResult(),
+      g.payloadJson(),
+      g.errorsJson()
+    );
   }
 
 //  // Body is the envelope you want:
@@ -134,15 +191,17 @@ public class ObsRuntimeController {
    * - Always enforces journey order
    * - Touches session TTL if still active
    * - If expired, auto-creates a new session (same application) and returns it via headers
+   * - Body is taken as raw JSON text: stored and echoed back as-is
+   * - Validated against the group's rules: failures are stored as INVALIDATED (with errors), progress is not advanced
    * <p>
    * DEV-ONLY:
-   * - X-OBS-FORCE-INVALID: true => store as INVALIDATED and do not advance progress
+   * - X-OBS-FORCE-INVALID: true => skip validation, store as INVALIDATED
    */
   @PutMapping("/sessions/{sessionId}/groups/{groupCode}")
   public Mono<ResponseEntity<SubmitGroupResponse>> submit(
     @PathVariable UUID sessionId,
     @PathVariable String groupCode,
-    @RequestBody JsonNode payload,
+    @RequestBody String payload,
     @RequestHeader(name = "X-OBS-FORCE-INVALID", required = false) Boolean forceInvalid
   ) {
     boolean forced = Boolean.TRUE.equals(forceInvalid);
@@ -154,7 +213,7 @@ public class ObsRuntimeController {
         .header("X-OBS-SESSION-EXPIRES-AT", out.sessionExpiresAt().toString())
         // Useful for debugging: tells you if renewal happened
         .header("X-OBS-SESSION-RENEWED", Boolean.toString(out.sessionRenewed()))
-        .body(new SubmitGroupResponse(payload, out.validateResult()))
+        .body(new SubmitGroupResponse(payload.isBlank() ? null : payload, out.validateResult(), out.errors()))
       );
   }
 
@@ -202,17 +261,19 @@ public class ObsRuntimeController {
     int groupNo,
     String status,           // VALIDATED | INVALIDATED | MISSING
     Boolean validateResult,
-    JsonNode payload
+    @JsonRawValue String payload,      // stored jsonb text, written as-is (no parse / re-serialize)
+    @JsonRawValue String errors        // validation errors of an INVALIDATED submit, same treatment
   ) {
   }
 
   /**
    * Submit response shape you wanted:
-   * { payload: <json envelope>, validateResult: true/false }
+   * { payload: <json envelope>, validateResult: true/false, errors: [...] }
    */
   public record SubmitGroupResponse(
-    JsonNode payload,
-    boolean validateResult
+    @JsonRawValue String payload,
+    boolean validateResult,
+    List<ValidationError> errors
   ) {
   }
 }
@@ -1,9 +1,11 @@
 package com.bootleg.brevo.runtime.controller;
 
-import com.bootleg.brevo.runtime.dto.GroupSubmission;
-import com.bootleg.brevo.validation.GroupValidationResult;
+import com.bootleg.brevo.runtime.mapper.JsonSubmissionMapper;
 import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.ValidationMode;
+import com.bootleg.brevo.validation.ValidationProperties;
 import com.bootleg.brevo.validation.services.GroupPayloadValidationService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
@@ -14,29 +16,45 @@ import java.util.List;
 public class PayloadValidationController {
 
   private final GroupPayloadValidationService service;
+  private final ValidationProperties props;
+  private final JsonSubmissionMapper submissionMapper;
 
-  public PayloadValidationController(GroupPayloadValidationService service) {
+  public PayloadValidationController(GroupPayloadValidationService service,
+                                     ValidationProperties props,
+                                     JsonSubmissionMapper submissionMapper) {
     this.service = service;
+    this.props = props;
+    this.submissionMapper = submissionMapper;
   }
 
+  /**
+   * - mode=ALL | FIRST_PER_FIELD (default: brevo.validation.mode)
+   * - maxErrors=N => stop after N errors (1 = fail-fast); never above brevo.validation.max-errors
+   * Body goes through JsonSubmissionMapper like a submit: codes and field keys are trimmed + uppercased.
+   */
   @PostMapping("/journeys/{journeyCode}/groups/{groupNo}/payload/validate")
   public Mono<GroupPayloadValidationResponse> validate(
     @PathVariable String journeyCode,
     @PathVariable int groupNo,
-    @RequestBody GroupSubmission body
+    @RequestParam(name = "mode", required = false) ValidationMode mode,
+    @RequestParam(name = "maxErrors", required = false) Integer maxErrors,
+    @RequestBody JsonNode body
   ) {
-    GroupValidationResult r = service.validate(journeyCode, groupNo, body);
-    return Mono.just(new GroupPayloadValidationResponse(
-      r.valid(),
-      r.valid() ? "OK" : "Invalid payload",
-      r.errors()
-    ));
+    return Mono.fromCallable(() -> submissionMapper.fromNode(body))
+      .flatMap(submission -> service.validateAsync(journeyCode, groupNo, submission, props.options(mode, maxErrors)))
+      .map(r -> new GroupPayloadValidationResponse(
+        r.valid(),
+        r.valid() ? "OK" : "Invalid payload",
+        r.errors(),
+        r.truncated()
+      ));
   }
 
   public record GroupPayloadValidationResponse(
     boolean valid,
     String message,
-    List<ValidationError> errors
+    List<ValidationError> errors,
+    boolean truncated
   ) {
   }
 }
@@ -2,10 +2,8 @@ package com.bootleg.brevo.runtime.controller;
 
 import com.bootleg.brevo.preload.PreloadSnapshot;
 import com.bootleg.brevo.preload.PreloadStore;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import com.bootleg.brevo.runtime.service.JourneyPlanService;
+import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -13,19 +11,44 @@ import reactor.core.publisher.Mono;
 public class RuntimeConfigController {
 
   private final PreloadStore preloadStore;
+  private final JourneyPlanService journeyPlanService;
 
-  public RuntimeConfigController(PreloadStore preloadStore) {
+  public RuntimeConfigController(PreloadStore preloadStore, JourneyPlanService journeyPlanService) {
     this.preloadStore = preloadStore;
+    this.journeyPlanService = journeyPlanService;
   }
 
   /**
    * Rebuild snapshot from DB (one consistent global refresh).
+   * ifChanged=true => version probe first, no-op when brevo_config did not change.
    */
   @PostMapping("/refresh")
-  public Mono<PreloadSnapshot> refreshAll() {
+  public Mono<PreloadSnapshot> refreshAll(
+    @RequestParam(name = "ifChanged", required = false, defaultValue = "false") boolean ifChanged
+  ) {
+    if (ifChanged) return preloadStore.refreshIfChanged();
+
+    journeyPlanService.invalidateAll();
     return preloadStore.refreshAll();
   }
 
+  /**
+   * Reload only one journey (its groups) and swap it into the snapshot.
+   */
+  @PostMapping("/refresh/journeys/{journeyCode}")
+  public Mono<PreloadSnapshot> refreshJourney(@PathVariable String journeyCode) {
+    journeyPlanService.invalidate(journeyCode);
+    return preloadStore.refreshJourney(journeyCode);
+  }
+
+  /**
+   * Reload only one group (forms/fields/rules) and swap it into the snapshot.
+   */
+  @PostMapping("/refresh/groups/{groupNo}")
+  public Mono<PreloadSnapshot> refreshGroup(@PathVariable int groupNo) {
+    return preloadStore.refreshGroup(groupNo);
+  }
+
   /**
    * Return current snapshot (NO DB).
    */
@@ -20,6 +20,9 @@ public record ObsGroupStateEntity(
   @Column("payload")
   String payloadJson,            // selected as payload::text
 
+  @Column("errors")
+  String errorsJson,             // selected as errors::text; null unless INVALIDATED by validation
+
   @Column("submission_version")
   Integer submissionVersion,
 
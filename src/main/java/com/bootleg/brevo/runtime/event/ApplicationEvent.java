@@ -0,0 +1,47 @@
+package com.bootleg.brevo.runtime.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One state change of an application, pushed to /runtime/sessions/{id}/events.
+ * Only the fields relevant to the type are set (nulls are not serialized).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApplicationEvent(
+  Type type,
+  UUID applicationId,
+  List<Integer> groupNos,          // GROUP_STATUS
+  String status,                   // GROUP_STATUS: VALIDATED | INVALIDATED, PROGRESS: application status
+  Integer currentGroupNo,          // PROGRESS
+  UUID sessionId,                  // SESSION_RENEWED: the new session
+  OffsetDateTime sessionExpiresAt, // SESSION_RENEWED
+  UUID supersededBy,               // SUPERSEDED: the application created by the restart
+  OffsetDateTime at
+) {
+
+  public enum Type {GROUP_STATUS, PROGRESS, SESSION_RENEWED, SUPERSEDED}
+
+  public static ApplicationEvent groupStatus(UUID applicationId, List<Integer> groupNos, String status) {
+    return new ApplicationEvent(Type.GROUP_STATUS, applicationId, groupNos, status, null, null, null, null,
+      OffsetDateTime.now());
+  }
+
+  public static ApplicationEvent progress(UUID applicationId, String applicationStatus, int currentGroupNo) {
+    return new ApplicationEvent(Type.PROGRESS, applicationId, null, applicationStatus, currentGroupNo, null, null, null,
+      OffsetDateTime.now());
+  }
+
+  public static ApplicationEvent sessionRenewed(UUID applicationId, UUID sessionId, OffsetDateTime expiresAt) {
+    return new ApplicationEvent(Type.SESSION_RENEWED, applicationId, null, null, null, sessionId, expiresAt, null,
+      OffsetDateTime.now());
+  }
+
+  public static ApplicationEvent superseded(UUID applicationId, UUID supersededBy) {
+    return new ApplicationEvent(Type.SUPERSEDED, applicationId, null, "SUPERSEDED", null, null, null, supersededBy,
+      OffsetDateTime.now());
+  }
+}
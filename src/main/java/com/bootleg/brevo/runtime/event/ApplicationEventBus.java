@@ -0,0 +1,98 @@
+package com.bootleg.brevo.runtime.event;
+
+import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-process fan-out of ApplicationEvent to the SSE streams of this pod.
+ * <p>
+ * With {@code obs.runtime.events-redis}: publish() goes to the Redis channel only and every pod (this one
+ * included) feeds its local sink from the channel subscription, so a stream sees submits made on any pod.
+ * Without it, events stay on the pod that made the change.
+ * <p>
+ * Best effort: a subscriber that cannot keep up misses events (clients re-read /current on reconnect).
+ */
+@Slf4j
+@Component
+public class ApplicationEventBus {
+
+  private static final String CHANNEL = "obs:application-events";
+
+  private final Sinks.Many<ApplicationEvent> sink = Sinks.many().multicast().directBestEffort();
+  private final ReactiveStringRedisTemplate redis;
+  private final ObjectMapper objectMapper;
+  private final boolean redisEnabled;
+
+  private volatile Disposable subscription;
+
+  public ApplicationEventBus(ObsRuntimeProperties props,
+                             ReactiveStringRedisTemplate redis,
+                             ObjectMapper objectMapper) {
+    this.redis = redis;
+    this.objectMapper = objectMapper;
+    this.redisEnabled = props.eventsRedis();
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!redisEnabled) return;
+
+    subscription = Flux.defer(() -> redis.listenToChannel(CHANNEL))
+      .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+        .maxBackoff(Duration.ofSeconds(30))
+        .doBeforeRetry(sig -> log.warn("Application event subscription failed, retrying", sig.failure())))
+      .subscribe(msg -> {
+        try {
+          emitLocal(objectMapper.readValue(msg.getMessage(), ApplicationEvent.class));
+        } catch (Exception e) {
+          log.warn("Dropping unreadable application event", e);
+        }
+      });
+  }
+
+  @PreDestroy
+  public void stop() {
+    Disposable d = subscription;
+    if (d != null) d.dispose();
+  }
+
+  /**
+   * Fire-and-forget; call after the change is committed.
+   */
+  public void publish(ApplicationEvent event) {
+    if (!redisEnabled) {
+      emitLocal(event);
+      return;
+    }
+
+    Mono.fromCallable(() -> objectMapper.writeValueAsString(event))
+      .flatMap(json -> redis.convertAndSend(CHANNEL, json))
+      .subscribe(receivers -> {
+      }, e -> {
+        log.warn("Application event publish to Redis failed, delivering locally only", e);
+        emitLocal(event);
+      });
+  }
+
+  public Flux<ApplicationEvent> stream(UUID applicationId) {
+    return sink.asFlux().filter(e -> applicationId.equals(e.applicationId()));
+  }
+
+  private void emitLocal(ApplicationEvent event) {
+    // publishers run on many threads: spin briefly instead of failing on concurrent emits
+    sink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+  }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 public interface ObsApplicationRepository extends ReactiveCrudRepository<ObsApplicationEntity, UUID> {
@@ -82,6 +83,14 @@ public interface ObsApplicationRepository extends ReactiveCrudRepository<ObsAppl
     int furthestGroupNo
   );
 
+  // Version probe for conditional GETs (ETag): no full row needed to answer 304
+  @Query("""
+      SELECT version, journey_code
+      FROM bootleg_runtime.obs_application
+      WHERE application_id = :applicationId
+    """)
+  Mono<VersionRow> findVersionById(UUID applicationId);
+
   // Pessimistic lock helper (use inside a transaction)
   @Query("""
       SELECT *
@@ -102,6 +111,27 @@ public interface ObsApplicationRepository extends ReactiveCrudRepository<ObsAppl
     """)
   Mono<Integer> updateProgressSimple(UUID applicationId, String status, int currentGroupNo);
 
+  // Optimistic variant: 0 rows => someone else updated the application since we read :expectedVersion
+  @Query("""
+      UPDATE bootleg_runtime.obs_application
+      SET status = :status,
+          current_group_no = :currentGroupNo,
+          updated_at = now(),
+          version = version + 1
+      WHERE application_id = :applicationId
+        AND version = :expectedVersion
+    """)
+  Mono<Integer> updateProgressIfVersion(UUID applicationId, String status, int currentGroupNo, int expectedVersion);
+
+  // Group state changed without progress (INVALIDATED submit): readers keyed on version must see it
+  @Query("""
+      UPDATE bootleg_runtime.obs_application
+      SET updated_at = now(),
+          version = version + 1
+      WHERE application_id = :applicationId
+    """)
+  Mono<Integer> bumpVersion(UUID applicationId);
+
   // Optional: mark application updated without changing progress (handy for heartbeats/touches)
   @Query("""
       UPDATE bootleg_runtime.obs_application
@@ -131,5 +161,47 @@ public interface ObsApplicationRepository extends ReactiveCrudRepository<ObsAppl
     """)
   Mono<Integer> updateStatus(UUID applicationId, String status);
 
+  /**
+   * Whole submit in one round-trip (see scripts/brevo_runtime_submit.sql).
+   */
+  @Query("""
+      SELECT r_outcome          AS outcome,
+             r_session_id       AS session_id,
+             r_expires_at       AS expires_at,
+             r_renewed          AS renewed,
+             r_validate_result  AS validate_result,
+             r_application_id   AS application_id,
+             r_app_status       AS application_status,
+             r_current_group_no AS current_group_no,
+             r_invalidated      AS invalidated_group_nos
+      FROM bootleg_runtime.obs_submit_group(
+        :sessionId, :newSessionId, :groupNo, CAST(:payloadJson AS jsonb), :forceInvalid,
+        CAST(:errorsJson AS jsonb), :expiresAt
+      )
+    """)
+  Mono<SubmitRow> submitGroup(
+    UUID sessionId,
+    UUID newSessionId,
+    int groupNo,
+    String payloadJson,
+    boolean forceInvalid,
+    String errorsJson,
+    OffsetDateTime expiresAt
+  );
+
+  record VersionRow(int version, String journeyCode) {
+  }
 
+  record SubmitRow(
+    String outcome,                 // OK | SESSION_GONE | APP_NOT_FOUND | NOT_IN_JOURNEY | SKIP_AHEAD
+    UUID sessionId,
+    OffsetDateTime expiresAt,
+    Boolean renewed,
+    Boolean validateResult,
+    UUID applicationId,
+    String applicationStatus,
+    Integer currentGroupNo,
+    Integer[] invalidatedGroupNos   // later groups flipped VALIDATED -> INVALIDATED by a back-edit
+  ) {
+  }
 }
@@ -13,6 +13,7 @@ public interface ObsGroupStateRepository extends ReactiveCrudRepository<ObsGroup
   @Query("""
       SELECT application_id, group_no, status,
              payload::text AS payload,
+             errors::text AS errors,
              submission_version, created_at, updated_at
       FROM bootleg_runtime.obs_group_state
       WHERE application_id = :applicationId
@@ -20,21 +21,43 @@ public interface ObsGroupStateRepository extends ReactiveCrudRepository<ObsGroup
     """)
   Flux<ObsGroupStateEntity> findAllByApplicationId(UUID applicationId);
 
+  // Statuses only: never touches the payload column (no TOAST reads)
+  @Query("""
+      SELECT group_no, status
+      FROM bootleg_runtime.obs_group_state
+      WHERE application_id = :applicationId
+      ORDER BY group_no
+    """)
+  Flux<GroupStatusRow> findStatusesByApplicationId(UUID applicationId);
+
+  @Query("""
+      SELECT application_id, group_no, status,
+             payload::text AS payload,
+             errors::text AS errors,
+             submission_version, created_at, updated_at
+      FROM bootleg_runtime.obs_group_state
+      WHERE application_id = :applicationId
+        AND group_no = ANY(:groupNos)
+      ORDER BY group_no
+    """)
+  Flux<ObsGroupStateEntity> findByApplicationIdAndGroupNos(UUID applicationId, Integer[] groupNos);
+
   /**
-   * Upsert a VALIDATED payload (runtime-only: validation skipped)
+   * Upsert a VALIDATED payload (clears errors of a previous INVALIDATED submit).
    * payload is stored as jsonb, but we pass it as text and cast to jsonb.
    */
   @Query("""
       INSERT INTO bootleg_runtime.obs_group_state(
-        application_id, group_no, status, payload, submission_version, created_at, updated_at
+        application_id, group_no, status, payload, errors, submission_version, created_at, updated_at
       )
       VALUES (
-        :applicationId, :groupNo, 'VALIDATED', CAST(:payloadJson AS jsonb), 1, now(), now()
+        :applicationId, :groupNo, 'VALIDATED', CAST(:payloadJson AS jsonb), NULL, 1, now(), now()
       )
       ON CONFLICT (application_id, group_no)
       DO UPDATE SET
         status = 'VALIDATED',
         payload = CAST(:payloadJson AS jsonb),
+        errors = NULL,
         submission_version = bootleg_runtime.obs_group_state.submission_version + 1,
         updated_at = now()
     """)
@@ -51,24 +74,24 @@ public interface ObsGroupStateRepository extends ReactiveCrudRepository<ObsGroup
   Mono<Integer> invalidateAfter(UUID applicationId, int fromGroupNo);
 
   /**
-   * Upsert an INVALIDATED payload (DEV/testing).
-   * This simulates "validation failed" before real validation exists.
+   * Upsert an INVALIDATED payload together with its validation errors (JSON array text).
    */
   @Query("""
       INSERT INTO bootleg_runtime.obs_group_state(
-        application_id, group_no, status, payload, submission_version, created_at, updated_at
+        application_id, group_no, status, payload, errors, submission_version, created_at, updated_at
       )
       VALUES (
-        :applicationId, :groupNo, 'INVALIDATED', CAST(:payloadJson AS jsonb), 1, now(), now()
+        :applicationId, :groupNo, 'INVALIDATED', CAST(:payloadJson AS jsonb), CAST(:errorsJson AS jsonb), 1, now(), now()
       )
       ON CONFLICT (application_id, group_no)
       DO UPDATE SET
         status = 'INVALIDATED',
         payload = CAST(:payloadJson AS jsonb),
+        errors = CAST(:errorsJson AS jsonb),
         submission_version = bootleg_runtime.obs_group_state.submission_version + 1,
         updated_at = now()
     """)
-  Mono<Void> upsertInvalidated(UUID applicationId, int groupNo, String payloadJson);
+  Mono<Void> upsertInvalidated(UUID applicationId, int groupNo, String payloadJson, String errorsJson);
 
 
   // Safer invalidation helper for non-sequential group numbers (use with journey plan ordering)
@@ -81,4 +104,23 @@ public interface ObsGroupStateRepository extends ReactiveCrudRepository<ObsGroup
         AND status = 'VALIDATED'
     """)
   Mono<Integer> invalidateOne(UUID applicationId, int groupNo);
+
+  /**
+   * Set-based variant of invalidateOne: one round-trip for all later groups of a back-edit.
+   * Array (not a collection) on purpose: collections are expanded to an IN list, arrays bind as int4[].
+   * Emits the group numbers that actually flipped (for the application event stream).
+   */
+  @Query("""
+      UPDATE bootleg_runtime.obs_group_state
+      SET status = 'INVALIDATED',
+          updated_at = now()
+      WHERE application_id = :applicationId
+        AND group_no = ANY(:groupNos)
+        AND status = 'VALIDATED'
+      RETURNING group_no
+    """)
+  Flux<Integer> invalidateMany(UUID applicationId, Integer[] groupNos);
+
+  record GroupStatusRow(int groupNo, String status) {
+  }
 }
@@ -62,6 +62,18 @@ public interface ObsSessionRepository extends ReactiveCrudRepository<ObsSessionE
     """)
   Mono<Integer> touch(UUID sessionId, OffsetDateTime newExpiresAt);
 
+  // Batched touch (SessionTouchCoalescer): one UPDATE for many sessions, never shortens an expiry
+  @Query("""
+      UPDATE bootleg_runtime.obs_session s
+      SET expires_at = t.expires_at,
+          updated_at = now()
+      FROM unnest(CAST(:sessionIds AS uuid[]), CAST(:expiresAts AS timestamptz[])) AS t(session_id, expires_at)
+      WHERE s.session_id = t.session_id
+        AND s.status = 'ACTIVE'
+        AND s.expires_at < t.expires_at
+    """)
+  Mono<Integer> touchAll(UUID[] sessionIds, OffsetDateTime[] expiresAts);
+
   @Query("""
       UPDATE bootleg_runtime.obs_session
       SET status = 'EXPIRED',
@@ -89,5 +101,79 @@ public interface ObsSessionRepository extends ReactiveCrudRepository<ObsSessionE
     """)
   Mono<Integer> expireAllActiveByApplicationId(UUID applicationId);
 
+  // Same as expireAllActiveByApplicationId, returning the ids (to drop them from the Redis session store)
+  @Query("""
+      UPDATE bootleg_runtime.obs_session
+      SET status = 'EXPIRED',
+          updated_at = now()
+      WHERE application_id = :applicationId
+        AND status = 'ACTIVE'
+      RETURNING session_id
+    """)
+  Flux<UUID> expireAllActiveByApplicationIdReturning(UUID applicationId);
+
+  // ---------- SessionReaper: bounded batches, concurrent reapers skip each other's rows ----------
+
+  @Query("""
+      WITH due AS (
+        SELECT session_id
+        FROM bootleg_runtime.obs_session
+        WHERE status = 'ACTIVE'
+          AND expires_at < :cutoff
+        ORDER BY expires_at
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+      )
+      UPDATE bootleg_runtime.obs_session s
+      SET status = 'EXPIRED',
+          updated_at = now()
+      FROM due
+      WHERE s.session_id = due.session_id
+    """)
+  Mono<Integer> expireDueBatch(OffsetDateTime cutoff, int batchSize);
+
+  // Redis session store: candidates only, the key's TTL decides (RedisSessionStore.expireDueBatch)
+  @Query("""
+      SELECT session_id
+      FROM bootleg_runtime.obs_session
+      WHERE status = 'ACTIVE'
+        AND expires_at < :cutoff
+      ORDER BY expires_at
+      LIMIT :batchSize
+    """)
+  Flux<UUID> findDueSessionIds(OffsetDateTime cutoff, int batchSize);
+
+  @Query("""
+      UPDATE bootleg_runtime.obs_session
+      SET status = 'EXPIRED',
+          updated_at = now()
+      WHERE session_id = ANY(CAST(:sessionIds AS uuid[]))
+        AND status = 'ACTIVE'
+    """)
+  Mono<Integer> expireActiveByIds(UUID[] sessionIds);
+
+  @Query("""
+      WITH old AS (
+        SELECT session_id
+        FROM bootleg_runtime.obs_session
+        WHERE status <> 'ACTIVE'
+          AND updated_at < :cutoff
+        ORDER BY updated_at
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+      )
+      DELETE FROM bootleg_runtime.obs_session s
+      USING old
+      WHERE s.session_id = old.session_id
+    """)
+  Mono<Integer> deleteClosedBatch(OffsetDateTime cutoff, int batchSize);
 
+  // Oldest expiry still waiting to be reaped (empty = nothing due)
+  @Query("""
+      SELECT min(expires_at)
+      FROM bootleg_runtime.obs_session
+      WHERE status = 'ACTIVE'
+        AND expires_at < :cutoff
+    """)
+  Mono<OffsetDateTime> findOldestDueExpiry(OffsetDateTime cutoff);
 }
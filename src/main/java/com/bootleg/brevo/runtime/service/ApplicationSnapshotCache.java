@@ -0,0 +1,149 @@
+package com.bootleg.brevo.runtime.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read model of an application's stored groups (obs_group_state rows, payload text included),
+ * keyed by applicationId + obs_application.version.
+ * <p>
+ * Every write to obs_group_state bumps the version in the same transaction, so an entry never goes stale:
+ * an entry of another version is simply a miss. evict() only frees memory early.
+ * <p>
+ * Tier 1: local Caffeine, one entry per application (the newest version seen; the version is checked on read,
+ * so eviction is a single invalidate and old versions never pile up). Tier 2 (optional, {@code obs.runtime.snapshot-cache-redis}): Redis,
+ * shared by all pods, same versioned key, TTL = {@code snapshot-cache-ttl}.
+ */
+@Slf4j
+@Component
+public class ApplicationSnapshotCache {
+
+  private static final String KEY_PREFIX = "obs:snapshot:";
+  private static final TypeReference<Map<Integer, ObsRuntimeService.GroupSnapshotRow>> ROWS_TYPE =
+    new TypeReference<>() {
+    };
+
+  private final Cache<UUID, Versioned> local;
+  private final ReactiveStringRedisTemplate redis;
+  private final ObjectMapper objectMapper;
+  private final boolean redisEnabled;
+  private final Duration ttl;
+
+  public ApplicationSnapshotCache(ObsRuntimeProperties props,
+                                  ReactiveStringRedisTemplate redis,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+    this.redis = redis;
+    this.objectMapper = objectMapper;
+    this.redisEnabled = props.snapshotCacheRedis();
+    this.ttl = props.snapshotCacheTtl();
+    this.local = Caffeine.newBuilder()
+      .maximumSize(props.snapshotCacheMaxSize())
+      .expireAfterAccess(ttl)
+      .recordStats()
+      .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, local, "applicationSnapshots");
+  }
+
+  private static String redisKey(Key key) {
+    return KEY_PREFIX + key.applicationId() + ":" + key.version();
+  }
+
+  /**
+   * Stored groups by groupNo; loader runs only when neither tier has this version.
+   */
+  public Mono<Map<Integer, ObsRuntimeService.GroupSnapshotRow>> get(
+    UUID applicationId,
+    int version,
+    Supplier<Mono<Map<Integer, ObsRuntimeService.GroupSnapshotRow>>> loader
+  ) {
+    Key key = new Key(applicationId, version);
+
+    Map<Integer, ObsRuntimeService.GroupSnapshotRow> hit = peek(applicationId, version);
+    if (hit != null) return Mono.just(hit);
+
+    Mono<Map<Integer, ObsRuntimeService.GroupSnapshotRow>> load = Mono.defer(loader)
+      .doOnNext(rows -> {
+        putLocal(key, rows);
+        writeRedis(key, rows);
+      });
+
+    if (!redisEnabled) return load;
+
+    return readRedis(key)
+      .doOnNext(rows -> putLocal(key, rows))
+      .switchIfEmpty(load);
+  }
+
+  /**
+   * Local tier only, never loads (partial reads use it when the full entry happens to be there).
+   */
+  public Map<Integer, ObsRuntimeService.GroupSnapshotRow> peek(UUID applicationId, int version) {
+    Versioned v = local.getIfPresent(applicationId);
+    return v != null && v.version() == version ? v.rows() : null;
+  }
+
+  /**
+   * Drop this application's entry (local tier; Redis entries expire on their own).
+   */
+  public void evict(UUID applicationId) {
+    local.invalidate(applicationId);
+  }
+
+  // a slow load of an older version must not replace a newer entry
+  private void putLocal(Key key, Map<Integer, ObsRuntimeService.GroupSnapshotRow> rows) {
+    local.asMap().merge(key.applicationId(), new Versioned(key.version(), rows),
+      (old, neu) -> neu.version() >= old.version() ? neu : old);
+  }
+
+  private Mono<Map<Integer, ObsRuntimeService.GroupSnapshotRow>> readRedis(Key key) {
+    return redis.opsForValue().get(redisKey(key))
+      .flatMap(json -> {
+        try {
+          return Mono.just(objectMapper.readValue(json, ROWS_TYPE));
+        } catch (Exception e) {
+          return Mono.empty();
+        }
+      })
+      .onErrorResume(e -> {
+        log.warn("Snapshot cache read from Redis failed", e);
+        return Mono.empty();
+      });
+  }
+
+  private void writeRedis(Key key, Map<Integer, ObsRuntimeService.GroupSnapshotRow> rows) {
+    if (!redisEnabled) return;
+
+    final String json;
+    try {
+      json = objectMapper.writeValueAsString(rows);
+    } catch (Exception e) {
+      return;
+    }
+
+    redis.opsForValue().set(redisKey(key), json, ttl)
+      .subscribe(ok -> {
+      }, e -> log.warn("Snapshot cache write to Redis failed", e));
+  }
+
+  private record Key(UUID applicationId, int version) {
+  }
+
+  private record Versioned(int version, Map<Integer, ObsRuntimeService.GroupSnapshotRow> rows) {
+  }
+}
@@ -1,56 +1,216 @@
 package com.bootleg.brevo.runtime.service;
 
+import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
 import com.bootleg.brevo.runtime.repo.BrevoJourneyPlanRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * JourneyPlan cache (Caffeine, async):
+ * - bounded by {@code obs.runtime.plan-cache-max-size}, so unknown journeyCodes cannot grow it forever
+ * - refreshed in the background after {@code plan-cache-refresh}, hard-expired after {@code plan-cache-ttl}
+ * - "journey has no groups" is cached too, but only for {@code plan-cache-negative-ttl}
+ * - a failed load is never cached (Caffeine drops exceptionally completed futures)
+ * - invalidate()/invalidateAll() for config changes (see ConfigChangeListener, RuntimeConfigController)
+ * Hit/miss/eviction metrics are published as cache.* meters with cache=journeyPlans.
+ */
 @Service
 public class JourneyPlanService {
 
   private final BrevoJourneyPlanRepository repo;
-  private final Map<String, Mono<JourneyPlan>> cache = new ConcurrentHashMap<>();
+  private final AsyncLoadingCache<String, Entry> cache;
 
-  public JourneyPlanService(BrevoJourneyPlanRepository repo) {
+  public JourneyPlanService(BrevoJourneyPlanRepository repo,
+                            ObsRuntimeProperties props,
+                            MeterRegistry meterRegistry) {
     this.repo = repo;
+    this.cache = Caffeine.newBuilder()
+      .maximumSize(props.planCacheMaxSize())
+      .expireAfter(new EntryExpiry(props.planCacheTtl(), props.planCacheNegativeTtl()))
+      .refreshAfterWrite(props.planCacheRefresh())
+      .recordStats()
+      .buildAsync((journeyCode, executor) -> load(journeyCode).toFuture());
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "journeyPlans");
   }
 
   public Mono<JourneyPlan> getPlan(String journeyCode) {
-    return cache.computeIfAbsent(journeyCode, jc ->
-      repo.fetchPlan(jc)
-        .collectList()
-        .map(rows -> {
-          if (rows.isEmpty()) throw new IllegalArgumentException("Journey has no groups: " + jc);
-
-          Map<Integer, Integer> posByGroup = new HashMap<>();
-          List<Integer> order = new ArrayList<>();
-          int lastPos = 0;
-
-          for (var r : rows) {
-            posByGroup.put(r.groupNo(), r.position());
-            order.add(r.groupNo());
-            lastPos = Math.max(lastPos, r.position());
-          }
-          return new JourneyPlan(jc, List.copyOf(order), Map.copyOf(posByGroup), lastPos);
-        })
-        .cache()
-    );
+    // suppressCancel: a cancelled caller must not cancel the future other callers share
+    return Mono.fromFuture(() -> cache.get(journeyCode), true)
+      .flatMap(e -> e.plan() != null
+        ? Mono.just(e.plan())
+        : Mono.error(new IllegalArgumentException("Journey has no groups: " + journeyCode)));
   }
 
   public Mono<Void> warmUp(String journeyCode) {
     return getPlan(journeyCode).then();
   }
 
-  public record JourneyPlan(
-    String journeyCode,
-    List<Integer> groupNosInOrder,
-    Map<Integer, Integer> posByGroupNo,
-    int lastPos
-  ) {
+  public void invalidate(String journeyCode) {
+    cache.synchronous().invalidate(journeyCode);
+  }
+
+  public void invalidateAll() {
+    cache.synchronous().invalidateAll();
+  }
+
+  private Mono<Entry> load(String jc) {
+    return repo.fetchPlan(jc)
+      .collectList()
+      .map(rows -> {
+        if (rows.isEmpty()) return Entry.MISSING;
+
+        int n = rows.size();
+        List<Integer> order = new ArrayList<>(n);
+        Map<Integer, Integer> posByGroup = new HashMap<>();
+        Map<Integer, Integer> indexByGroup = new HashMap<>();
+        Map<Integer, Integer> groupByPos = new HashMap<>();
+        int[] positions = new int[n];
+        int lastPos = 0;
+
+        for (int i = 0; i < n; i++) {
+          var r = rows.get(i);
+          order.add(r.groupNo());
+          posByGroup.put(r.groupNo(), r.position());
+          indexByGroup.put(r.groupNo(), i);
+          groupByPos.putIfAbsent(r.position(), r.groupNo());
+          positions[i] = r.position();
+          lastPos = Math.max(lastPos, r.position());
+        }
+
+        // rows come ordered by position: next = group at position + 1, later = first index past this position
+        int[] nextGroupNo = new int[n];
+        int[] laterFrom = new int[n];
+        int from = n;
+        for (int i = n - 1; i >= 0; i--) {
+          nextGroupNo[i] = groupByPos.getOrDefault(positions[i] + 1, 0);
+          if (i == n - 1 || positions[i + 1] > positions[i]) from = i + 1;
+          laterFrom[i] = from;
+        }
+
+        return new Entry(new JourneyPlan(
+          jc,
+          List.copyOf(order),
+          Map.copyOf(posByGroup),
+          lastPos,
+          Map.copyOf(indexByGroup),
+          nextGroupNo,
+          laterFrom
+        ));
+      });
+  }
+
+  /**
+   * Immutable: the position-indexed arrays are built once per load and stay private (index = slot in
+   * groupNosInOrder), so nothing outside the cache can change a shared plan. Identity equality.
+   */
+  public static final class JourneyPlan {
+
+    private final String journeyCode;
+    private final List<Integer> groupNosInOrder;
+    private final Map<Integer, Integer> posByGroupNo;
+    private final int lastPos;
+    private final Map<Integer, Integer> indexByGroupNo;
+    private final int[] nextGroupNoByIndex;            // groupNo at position + 1, 0 = none
+    private final int[] laterFromByIndex;              // groupNosInOrder.subList(laterFrom, size) = groups after this position
+
+    private JourneyPlan(
+      String journeyCode,
+      List<Integer> groupNosInOrder,
+      Map<Integer, Integer> posByGroupNo,
+      int lastPos,
+      Map<Integer, Integer> indexByGroupNo,
+      int[] nextGroupNoByIndex,
+      int[] laterFromByIndex
+    ) {
+      this.journeyCode = journeyCode;
+      this.groupNosInOrder = groupNosInOrder;
+      this.posByGroupNo = posByGroupNo;
+      this.lastPos = lastPos;
+      this.indexByGroupNo = indexByGroupNo;
+      this.nextGroupNoByIndex = nextGroupNoByIndex;
+      this.laterFromByIndex = laterFromByIndex;
+    }
+
+    public String journeyCode() {
+      return journeyCode;
+    }
+
+    public List<Integer> groupNosInOrder() {
+      return groupNosInOrder;
+    }
+
+    public Map<Integer, Integer> posByGroupNo() {
+      return posByGroupNo;
+    }
+
+    public int lastPos() {
+      return lastPos;
+    }
+
+    /**
+     * Group following groupNo in the journey, null when groupNo is the last one.
+     */
+    public Integer nextGroupNo(int groupNo) {
+      Integer idx = indexByGroupNo.get(groupNo);
+      if (idx == null) return null;
+      int next = nextGroupNoByIndex[idx];
+      return next == 0 ? null : next;
+    }
+
+    /**
+     * Groups positioned after groupNo, in journey order (an unmodifiable view, no copy).
+     */
+    public List<Integer> groupNosAfter(int groupNo) {
+      Integer idx = indexByGroupNo.get(groupNo);
+      if (idx == null) return List.of();
+      return Collections.unmodifiableList(groupNosInOrder.subList(laterFromByIndex[idx], groupNosInOrder.size()));
+    }
+
+    @Override
+    public String toString() {
+      return "JourneyPlan[" + journeyCode + ", " + groupNosInOrder + "]";
+    }
+  }
+
+  /**
+   * Cached value; plan == null means the journey has no groups (negative entry).
+   */
+  private record Entry(JourneyPlan plan) {
+    static final Entry MISSING = new Entry(null);
+  }
+
+  private record EntryExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Entry> {
+
+    private long ttlOf(Entry e) {
+      return (e.plan() == null ? negativeTtl : ttl).toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String key, Entry value, long currentTime) {
+      return ttlOf(value);
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+      return ttlOf(value);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
@@ -1,38 +1,57 @@
 package com.bootleg.brevo.runtime.service;
 
 import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
+import com.bootleg.brevo.runtime.config.SubmitMode;
 import com.bootleg.brevo.runtime.entity.ObsApplicationEntity;
 import com.bootleg.brevo.runtime.entity.ObsGroupStateEntity;
 import com.bootleg.brevo.runtime.entity.ObsSessionEntity;
+import com.bootleg.brevo.runtime.event.ApplicationEvent;
+import com.bootleg.brevo.runtime.event.ApplicationEventBus;
+import com.bootleg.brevo.runtime.mapper.JsonSubmissionMapper;
 import com.bootleg.brevo.runtime.repo.BrevoJourneyConfigRepository;
 import com.bootleg.brevo.runtime.repo.ObsApplicationRepository;
 import com.bootleg.brevo.runtime.repo.ObsGroupStateRepository;
-import com.bootleg.brevo.runtime.repo.ObsSessionRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.bootleg.brevo.runtime.session.SessionStore;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.services.GroupPayloadValidationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class ObsRuntimeService {
 
   private final ObsApplicationRepository appRepo;
-  private final ObsSessionRepository sessionRepo;
+  private final SessionStore sessionStore;
   private final ObsGroupStateRepository groupRepo;
 
   private final BrevoJourneyConfigRepository journeyConfigRepo;
   private final JourneyPlanService journeyPlanService;
+  private final ApplicationSnapshotCache snapshotCache;
+  private final ApplicationEventBus eventBus;
+  private final GroupPayloadValidationService validationService;
+  private final JsonSubmissionMapper submissionMapper;
 
   private final ObsRuntimeProperties props;
   private final ObjectMapper objectMapper;
@@ -40,19 +59,27 @@ public class ObsRuntimeService {
 
   public ObsRuntimeService(
     ObsApplicationRepository appRepo,
-    ObsSessionRepository sessionRepo,
+    SessionStore sessionStore,
     ObsGroupStateRepository groupRepo,
     BrevoJourneyConfigRepository journeyConfigRepo,
     JourneyPlanService journeyPlanService,
+    ApplicationSnapshotCache snapshotCache,
+    ApplicationEventBus eventBus,
+    GroupPayloadValidationService validationService,
+    JsonSubmissionMapper submissionMapper,
     ObsRuntimeProperties props,
     ObjectMapper objectMapper,
     TransactionalOperator tx
   ) {
     this.appRepo = appRepo;
-    this.sessionRepo = sessionRepo;
+    this.sessionStore = sessionStore;
     this.groupRepo = groupRepo;
     this.journeyConfigRepo = journeyConfigRepo;
     this.journeyPlanService = journeyPlanService;
+    this.snapshotCache = snapshotCache;
+    this.eventBus = eventBus;
+    this.validationService = validationService;
+    this.submissionMapper = submissionMapper;
     this.props = props;
     this.objectMapper = objectMapper;
     this.tx = tx;
@@ -77,10 +104,9 @@ public class ObsRuntimeService {
           .switchIfEmpty(Mono.defer(() -> createNewApplication(journeyId, journeyCode, customerRef)))
       )
       .flatMap(app ->
-        sessionRepo.insertNew(
+        sessionStore.create(
             UUID.randomUUID(),
             app.applicationId(),
-            "ACTIVE",
             now.plus(props.sessionTtl())
           )
           .map(sess -> new AppAndSession(app, sess))
@@ -95,30 +121,133 @@ public class ObsRuntimeService {
    * - return snapshot
    */
   public Mono<CurrentResult> getCurrent(UUID sessionId) {
-    OffsetDateTime now = OffsetDateTime.now();
-    OffsetDateTime newExpiresAt = now.plus(props.sessionTtl());
+    return getCurrent(sessionId, SnapshotView.FULL, null).map(ConditionalCurrent::result);
+  }
 
-    return sessionRepo.findActive(sessionId)
-      .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.GONE, "Session expired")))
+  /**
+   * getCurrent limited to what the view asks for (statuses only and/or some groups), with an ETag.
+   * When one of ifNoneMatch equals the current ETag, only the session touch and
+   * a version probe hit the DB, result is null (=> 304). Otherwise the snapshot is built as usual.
+   */
+  public Mono<ConditionalCurrent> getCurrent(UUID sessionId, SnapshotView view, List<String> ifNoneMatch) {
+    if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+      return activeAppAndSession(sessionId)
+        .flatMap(pair -> currentWithEtag(pair.app(), pair.sess(), view));
+    }
+
+    return activeSession(sessionId)
+      .flatMap(sess -> appRepo.findVersionById(sess.applicationId())
+        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found")))
+        .flatMap(v -> journeyPlanService.getPlan(v.journeyCode())
+          .flatMap(plan -> {
+            String etag = currentEtag(sess, v.version(), plan, view);
+            if (etagMatches(etag, ifNoneMatch)) return Mono.just(new ConditionalCurrent(etag, sess.expiresAt(), null));
+
+            return appRepo.findById(sess.applicationId())
+              .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found")))
+              .flatMap(app -> currentWithEtag(app, sess, view));
+          })));
+  }
+
+  private Mono<ConditionalCurrent> currentWithEtag(ObsApplicationEntity app, ObsSessionEntity sess, SnapshotView view) {
+    int version = app.version() == null ? 0 : app.version();
+
+    return journeyPlanService.getPlan(app.journeyCode())
+      .flatMap(plan -> buildSnapshot(app, sess, app.journeyCode(), view)
+        .map(s -> new ConditionalCurrent(currentEtag(sess, version, plan, view), s.sessionExpiresAt(), toCurrent(s))));
+  }
+
+  /**
+   * Weak validator: obs_application.version moves on every group-state write, the plan and view shape the body.
+   * Weak on purpose: sessionExpiresAt (in the body) slides on every touch without changing what the UI renders;
+   * its current value also goes out as a header, including on 304.
+   */
+  private static String currentEtag(
+    ObsSessionEntity sess,
+    int version,
+    JourneyPlanService.JourneyPlan plan,
+    SnapshotView view
+  ) {
+    String groups = view.groupNos() == null ? "*" : new TreeSet<>(view.groupNos()).toString();
+    String basis = sess.sessionId() + "|" + version + "|" + plan.groupNosInOrder() + "|"
+      + view.includePayload() + "|" + groups;
+
+    return "W/\"" + version + "-" + DigestUtils.md5DigestAsHex(basis.getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+
+  private static boolean etagMatches(String etag, List<String> ifNoneMatch) {
+    String opaque = etag.substring(2);     // If-None-Match uses weak comparison
+    for (String candidate : ifNoneMatch) {
+      String c = candidate.trim();
+      if (c.equals("*")) return true;
+      if (c.startsWith("W/")) c = c.substring(2);
+      if (c.equals(opaque)) return true;
+    }
+    return false;
+  }
+
+  private static CurrentResult toCurrent(StartSessionResult s) {
+    return new CurrentResult(
+      s.sessionId(),
+      s.applicationId(),
+      s.journeyCode(),
+      s.currentGroupNo(),
+      s.applicationStatus(),
+      s.sessionExpiresAt(),
+      s.nextGroupNo(),
+      s.groups()
+    );
+  }
+
+  /**
+   * One group with its payload (MISSING if never submitted); touches the session like getCurrent.
+   */
+  public Mono<GroupSnapshotRow> getGroup(UUID sessionId, String groupCode) {
+    final int groupNo;
+    try {
+      groupNo = Integer.parseInt(groupCode);
+    } catch (Exception e) {
+      return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupCode must be numeric for now"));
+    }
+
+    return activeAppAndSession(sessionId)
+      .flatMap(pair -> journeyPlanService.getPlan(pair.app().journeyCode())
+        .flatMap(plan -> {
+          if (!plan.posByGroupNo().containsKey(groupNo)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Group is not part of this journey"));
+          }
+          return storedGroups(pair.app(), new SnapshotView(true, Set.of(groupNo)))
+            .map(byGroupNo -> byGroupNo.getOrDefault(groupNo, new GroupSnapshotRow(groupNo, "MISSING", null, null, null)));
+        }));
+  }
+
+  /**
+   * State changes of the session's application, as they are committed (any pod with events-redis).
+   * Opening the stream touches the session; the stream itself does not keep it alive.
+   */
+  public Flux<ApplicationEvent> events(UUID sessionId) {
+    return activeSession(sessionId)
+      .flatMapMany(sess -> eventBus.stream(sess.applicationId()));
+  }
+
+  private Mono<AppAndSession> activeAppAndSession(UUID sessionId) {
+    return activeSession(sessionId)
       .flatMap(sess ->
         appRepo.findById(sess.applicationId())
           .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found")))
-          .flatMap(app ->
-            sessionRepo.touch(sessionId, newExpiresAt)
-              .thenReturn(new AppAndSession(app, sess))
-          )
-      )
-      .flatMap(pair -> buildSnapshot(pair.app(), pair.sess(), pair.app().journeyCode()))
-      .map(s -> new CurrentResult(
-        s.sessionId(),
-        s.applicationId(),
-        s.journeyCode(),
-        s.currentGroupNo(),
-        s.applicationStatus(),
-        s.sessionExpiresAt(),
-        s.nextGroupNo(),
-        s.groups()
-      ));
+          .map(app -> new AppAndSession(app, sess))
+      );
+  }
+
+  /**
+   * Require an ACTIVE session and slide its TTL.
+   */
+  private Mono<ObsSessionEntity> activeSession(UUID sessionId) {
+    OffsetDateTime newExpiresAt = OffsetDateTime.now().plus(props.sessionTtl());
+
+    return sessionStore.findActive(sessionId)
+      .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.GONE, "Session expired")))
+      .flatMap(sess -> sessionStore.touch(sessionId, newExpiresAt).thenReturn(sess));
   }
 
   /**
@@ -278,7 +407,7 @@ public class ObsRuntimeService {
 //        )
 //    );
 //  }
-  public Mono<SubmitOutcome> submitGroup(UUID sessionId, String groupCode, JsonNode payload, boolean forceInvalid) {
+  public Mono<SubmitOutcome> submitGroup(UUID sessionId, String groupCode, String payload, boolean forceInvalid) {
     final int groupNo;
     try {
       groupNo = Integer.parseInt(groupCode);
@@ -288,73 +417,256 @@ public class ObsRuntimeService {
 
     OffsetDateTime now = OffsetDateTime.now();
     OffsetDateTime newExpiresAt = now.plus(props.sessionTtl());
-    String payloadJson = payload == null ? "null" : payload.toString();
+    // raw request body goes to CAST(... AS jsonb) as-is: only check it is one well-formed JSON value
+    String payloadJson = (payload == null || payload.isBlank()) ? "null" : payload;
+    if (!isSingleJsonValue(payloadJson)) {
+      return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payload must be a single JSON value"));
+    }
+
+    // Validate first, outside any transaction: no row lock held, no pooled connection pinned meanwhile.
+    // journeyCode never changes for an application, so reading it unlocked is safe.
+    Mono<SubmitOutcome> submit = journeyCodeOf(sessionId)
+      .flatMap(journeyCode -> validatePayload(journeyCode, groupNo, payloadJson, forceInvalid))
+      .flatMap(v -> submitValidated(sessionId, groupNo, payloadJson, v, newExpiresAt));
+
+    // after commit: a rolled-back (or retried) attempt never reaches the event stream
+    return submit.doOnNext(this::publishSubmitEvents);
+  }
+
+  private Mono<SubmitOutcome> submitValidated(
+    UUID sessionId,
+    int groupNo,
+    String payloadJson,
+    PayloadValidation validation,
+    OffsetDateTime newExpiresAt
+  ) {
+    if (props.submitMode() == SubmitMode.SINGLE_STATEMENT) {
+      return submitGroupSingleStatement(sessionId, groupNo, payloadJson, validation, newExpiresAt);
+    }
+
+    if (props.submitMode() == SubmitMode.OPTIMISTIC) {
+      return submitGroupOptimistic(sessionId, groupNo, payloadJson, validation, newExpiresAt);
+    }
 
     return tx.transactional(
       requireActiveOrRenew(sessionId)
-        .flatMap(ctx -> {
-          UUID effectiveSessionId = ctx.session().sessionId();
-
-          return appRepo.lockById(ctx.session().applicationId())
+        .flatMap(ctx ->
+          appRepo.lockById(ctx.session().applicationId())
             .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found")))
-            .flatMap(app ->
-              journeyPlanService.getPlan(app.journeyCode())
-                .flatMap(plan -> {
-                  Integer submittedPos = plan.posByGroupNo().get(groupNo);
-                  if (submittedPos == null) {
-                    return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Group is not part of this journey"));
-                  }
-
-                  int currentGroupNo = app.currentGroupNo() == null ? 0 : app.currentGroupNo();
-                  int currentPos = (currentGroupNo == 0) ? 0 : plan.posByGroupNo().getOrDefault(currentGroupNo, 0);
-
-                  if (submittedPos > currentPos + 1) {
-                    return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Group not allowed yet (cannot skip ahead)"));
-                  }
-
-                  boolean isBackEdit = submittedPos <= currentPos;
-
-                  Mono<Void> save = forceInvalid
-                    ? groupRepo.upsertInvalidated(app.applicationId(), groupNo, payloadJson)
-                    : groupRepo.upsertValidated(app.applicationId(), groupNo, payloadJson);
-
-                  Mono<Void> invalidateLater = (!forceInvalid && isBackEdit)
-                    ? invalidateLaterGroups(app.applicationId(), plan, submittedPos)
-                    : Mono.empty();
-
-                  Mono<Integer> updateApp = forceInvalid
-                    ? Mono.just(0)
-                    : appRepo.updateProgressSimple(
-                    app.applicationId(),
-                    (submittedPos == plan.lastPos()) ? "READY_FOR_FINALISATION" : "IN_PROGRESS",
-                    groupNo
-                  );
-
-                  // Touch the *effective* session
-                  Mono<Integer> touch = sessionRepo.touch(effectiveSessionId, newExpiresAt);
-
-                  return updateApp
-                    .then(save)
-                    .then(invalidateLater)
-                    .then(touch)
-                    .thenReturn(new SubmitOutcome(
-                      !forceInvalid,
-                      effectiveSessionId,
-                      newExpiresAt,
-                      ctx.renewed()
-                    ));
-                })
-            );
-        })
+            .flatMap(app -> applySubmit(ctx, app, groupNo, payloadJson, validation, newExpiresAt, false))
+        )
     );
   }
 
+  /**
+   * Any session (active or not: requireActiveOrRenew decides later) -> its application's journeyCode.
+   */
+  private Mono<String> journeyCodeOf(UUID sessionId) {
+    return sessionStore.findById(sessionId)
+      .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.GONE, "Session expired")))
+      .flatMap(sess -> appRepo.findVersionById(sess.applicationId()))
+      .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found")))
+      .map(ObsApplicationRepository.VersionRow::journeyCode);
+  }
+
+  /**
+   * Payload envelope -> GroupPayloadValidationService. A malformed envelope is a 400 (JsonSubmissionMapper),
+   * rule violations are an INVALIDATED submit.
+   * DEV: forceInvalid skips validation and stores a single FORCED error.
+   */
+  private Mono<PayloadValidation> validatePayload(
+    String journeyCode,
+    int groupNo,
+    String payloadJson,
+    boolean forceInvalid
+  ) {
+    if (forceInvalid) {
+      return Mono.fromCallable(() -> invalid(List.of(
+        new ValidationError(null, null, "FORCED", "Forced invalid (X-OBS-FORCE-INVALID)", Map.of()))));
+    }
+
+    return Mono.fromCallable(() -> submissionMapper.fromJson(payloadJson))
+      .flatMap(submission -> validationService.validateAsync(journeyCode, groupNo, submission))
+      .map(r -> r.valid() ? PayloadValidation.VALID : invalid(r.errors()));
+  }
+
+  private PayloadValidation invalid(List<ValidationError> errors) {
+    try {
+      return new PayloadValidation(false, errors, objectMapper.writeValueAsString(errors));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize validation errors", e);
+    }
+  }
+
+  private void publishSubmitEvents(SubmitOutcome out) {
+    UUID appId = out.applicationId();
+
+    if (out.sessionRenewed()) {
+      eventBus.publish(ApplicationEvent.sessionRenewed(appId, out.effectiveSessionId(), out.sessionExpiresAt()));
+    }
+    eventBus.publish(ApplicationEvent.groupStatus(
+      appId, List.of(out.groupNo()), out.validateResult() ? "VALIDATED" : "INVALIDATED"));
+    if (!out.invalidatedGroupNos().isEmpty()) {
+      eventBus.publish(ApplicationEvent.groupStatus(appId, out.invalidatedGroupNos(), "INVALIDATED"));
+    }
+    if (out.validateResult()) {
+      eventBus.publish(ApplicationEvent.progress(appId, out.applicationStatus(), out.currentGroupNo()));
+    }
+  }
+
+  /**
+   * No row lock: read the application, check, then claim it with a conditional UPDATE on version.
+   * A lost race rolls the attempt back and retries it (bounded), persistent contention => 409.
+   * Session renewal happens once, before the attempts.
+   */
+  private Mono<SubmitOutcome> submitGroupOptimistic(
+    UUID sessionId,
+    int groupNo,
+    String payloadJson,
+    PayloadValidation validation,
+    OffsetDateTime newExpiresAt
+  ) {
+    return requireActiveOrRenew(sessionId)
+      .flatMap(ctx -> tx.transactional(
+          appRepo.findById(ctx.session().applicationId())
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found")))
+            .flatMap(app -> applySubmit(ctx, app, groupNo, payloadJson, validation, newExpiresAt, true))
+        )
+        .retryWhen(Retry.backoff(props.optimisticMaxRetries(), Duration.ofMillis(5))
+          .maxBackoff(Duration.ofMillis(100))
+          .filter(VersionConflictException.class::isInstance)
+          .onRetryExhaustedThrow((spec, sig) ->
+            new ResponseStatusException(HttpStatus.CONFLICT, "Application was modified concurrently, retry"))));
+  }
+
+  /**
+   * Order check + writes, shared by LOCKING (app already locked) and OPTIMISTIC (app read without lock).
+   */
+  private Mono<SubmitOutcome> applySubmit(
+    SessionCtx ctx,
+    ObsApplicationEntity app,
+    int groupNo,
+    String payloadJson,
+    PayloadValidation validation,
+    OffsetDateTime newExpiresAt,
+    boolean optimistic
+  ) {
+    UUID effectiveSessionId = ctx.session().sessionId();
+    boolean invalid = !validation.valid();
+
+    return journeyPlanService.getPlan(app.journeyCode())
+      .flatMap(plan -> {
+        Integer submittedPos = plan.posByGroupNo().get(groupNo);
+        if (submittedPos == null) {
+          return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Group is not part of this journey"));
+        }
+
+        int currentGroupNo = app.currentGroupNo() == null ? 0 : app.currentGroupNo();
+        int currentPos = (currentGroupNo == 0) ? 0 : plan.posByGroupNo().getOrDefault(currentGroupNo, 0);
+
+        if (submittedPos > currentPos + 1) {
+          return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Group not allowed yet (cannot skip ahead)"));
+        }
+
+        boolean isBackEdit = submittedPos <= currentPos;
+
+        Mono<Void> save = invalid
+          ? groupRepo.upsertInvalidated(app.applicationId(), groupNo, payloadJson, validation.errorsJson())
+          : groupRepo.upsertValidated(app.applicationId(), groupNo, payloadJson);
+
+        Mono<List<Integer>> invalidateLater = (!invalid && isBackEdit)
+          ? invalidateLaterGroups(app.applicationId(), plan, groupNo)
+          : Mono.just(List.of());
+
+        String newStatus = invalid
+          ? app.status()
+          : (submittedPos == plan.lastPos()) ? "READY_FOR_FINALISATION" : "IN_PROGRESS";
+        int newGroupNo = invalid ? currentGroupNo : groupNo;
+
+        Mono<Integer> updateApp;
+        if (optimistic) {
+          // always claim the version (even for INVALIDATED) so concurrent writers are ordered
+          int expected = app.version() == null ? 0 : app.version();
+          updateApp = appRepo.updateProgressIfVersion(app.applicationId(), newStatus, newGroupNo, expected)
+            .flatMap(n -> n == 0 ? Mono.error(new VersionConflictException()) : Mono.just(n));
+        } else {
+          // INVALIDATED keeps progress but still bumps version (snapshot cache key)
+          updateApp = invalid
+            ? appRepo.bumpVersion(app.applicationId())
+            : appRepo.updateProgressSimple(app.applicationId(), newStatus, newGroupNo);
+        }
+
+        // Touch the *effective* session
+        Mono<Void> touch = sessionStore.touch(effectiveSessionId, newExpiresAt);
+
+        return updateApp
+          .then(save)
+          .then(invalidateLater)
+          .flatMap(invalidated -> touch
+            .doOnSuccess(v -> snapshotCache.evict(app.applicationId()))
+            .thenReturn(new SubmitOutcome(
+              !invalid,
+              validation.errors(),
+              effectiveSessionId,
+              newExpiresAt,
+              ctx.renewed(),
+              app.applicationId(),
+              groupNo,
+              newStatus,
+              newGroupNo,
+              invalidated
+            )));
+      });
+  }
+
+  /**
+   * Same rules as the LOCKING path, executed by bootleg_runtime.obs_submit_group in one round-trip.
+   * The order check reads the plan from brevo_config in the same statement (not JourneyPlanService).
+   */
+  private Mono<SubmitOutcome> submitGroupSingleStatement(
+    UUID sessionId,
+    int groupNo,
+    String payloadJson,
+    PayloadValidation validation,
+    OffsetDateTime newExpiresAt
+  ) {
+    return appRepo.submitGroup(
+        sessionId, UUID.randomUUID(), groupNo, payloadJson, !validation.valid(), validation.errorsJson(), newExpiresAt)
+      .switchIfEmpty(Mono.error(new IllegalStateException("obs_submit_group returned no row")))
+      .flatMap(r -> toSubmitOutcome(r, groupNo, validation));
+  }
+
+  private Mono<SubmitOutcome> toSubmitOutcome(ObsApplicationRepository.SubmitRow r, int groupNo, PayloadValidation v) {
+    return switch (r.outcome()) {
+      case "OK" -> Mono.just(new SubmitOutcome(
+        Boolean.TRUE.equals(r.validateResult()),
+        v.errors(),
+        r.sessionId(),
+        r.expiresAt(),
+        Boolean.TRUE.equals(r.renewed()),
+        r.applicationId(),
+        groupNo,
+        r.applicationStatus(),
+        r.currentGroupNo() == null ? 0 : r.currentGroupNo(),
+        r.invalidatedGroupNos() == null ? List.of() : List.of(r.invalidatedGroupNos())
+      ));
+      case "SESSION_GONE" -> Mono.error(new ResponseStatusException(HttpStatus.GONE, "Session expired"));
+      case "APP_NOT_FOUND" -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found"));
+      case "NOT_IN_JOURNEY" ->
+        Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Group is not part of this journey"));
+      case "SKIP_AHEAD" ->
+        Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Group not allowed yet (cannot skip ahead)"));
+      default -> Mono.error(new IllegalStateException("Unknown submit outcome: " + r.outcome()));
+    };
+  }
+
   // --------------------------------------------------------------------------
   // Restart
   // --------------------------------------------------------------------------
   public Mono<StartSessionResult> restartSession(String journeyCode, String customerRef) {
     OffsetDateTime now = OffsetDateTime.now();
     OffsetDateTime newExpiresAt = now.plus(props.sessionTtl());
+    AtomicReference<UUID> supersededId = new AtomicReference<>();
 
     return tx.transactional(
       journeyPlanService.warmUp(journeyCode)
@@ -364,7 +676,8 @@ public class ObsRuntimeService {
           appRepo.findLatestOpenByCustomerRef(customerRef, journeyId)
             .flatMap(oldApp ->
               appRepo.updateStatus(oldApp.applicationId(), "SUPERSEDED")
-                .then(sessionRepo.expireAllActiveByApplicationId(oldApp.applicationId()))
+                .then(sessionStore.expireAllActiveByApplicationId(oldApp.applicationId()))
+                .doOnSuccess(v -> supersededId.set(oldApp.applicationId()))
                 .thenReturn(true)
             )
             .switchIfEmpty(Mono.just(false))
@@ -379,10 +692,14 @@ public class ObsRuntimeService {
             ))
         )
         .flatMap(newApp ->
-          sessionRepo.insertNew(UUID.randomUUID(), newApp.applicationId(), "ACTIVE", newExpiresAt)
+          sessionStore.create(UUID.randomUUID(), newApp.applicationId(), newExpiresAt)
             .flatMap(sess -> buildSnapshot(newApp, sess, journeyCode))
         )
-    );
+    ).doOnNext(r -> {
+      // after commit: streams of the old application's sessions learn where the customer went
+      UUID oldId = supersededId.get();
+      if (oldId != null) eventBus.publish(ApplicationEvent.superseded(oldId, r.applicationId()));
+    });
   }
 
   private Mono<ObsApplicationEntity> createNewApplication(UUID journeyId, String journeyCode, String customerRef) {
@@ -403,32 +720,31 @@ public class ObsRuntimeService {
   // ---------------------------------------------------------------------------
 
   private Mono<StartSessionResult> buildSnapshot(ObsApplicationEntity app, ObsSessionEntity sess, String journeyCode) {
+    return buildSnapshot(app, sess, journeyCode, SnapshotView.FULL);
+  }
+
+  private Mono<StartSessionResult> buildSnapshot(
+    ObsApplicationEntity app,
+    ObsSessionEntity sess,
+    String journeyCode,
+    SnapshotView view
+  ) {
     return journeyPlanService.getPlan(journeyCode)
-      .zipWith(groupRepo.findAllByApplicationId(app.applicationId()).collectList())
+      .zipWith(storedGroups(app, view))
       .map(tuple -> {
         JourneyPlanService.JourneyPlan plan = tuple.getT1();
-        List<ObsGroupStateEntity> states = tuple.getT2();
-
-        Map<Integer, ObsGroupStateEntity> byGroupNo = states.stream()
-          .collect(Collectors.toMap(ObsGroupStateEntity::groupNo, s -> s, (a, b) -> a));
+        Map<Integer, GroupSnapshotRow> byGroupNo = tuple.getT2();
 
         List<GroupSnapshotRow> rows = new ArrayList<>();
         for (int gno : plan.groupNosInOrder()) {
-          ObsGroupStateEntity s = byGroupNo.get(gno);
-          if (s == null) {
-            rows.add(new GroupSnapshotRow(gno, "MISSING", null, null));
-            continue;
-          }
-
-          boolean ok = "VALIDATED".equalsIgnoreCase(s.status());
-          JsonNode payloadNode = safeReadJson(s.payloadJson());
+          if (!view.includes(gno)) continue;
 
-          rows.add(new GroupSnapshotRow(
-            gno,
-            s.status(),
-            ok ? Boolean.TRUE : Boolean.FALSE,
-            payloadNode
-          ));
+          GroupSnapshotRow row = byGroupNo.get(gno);
+          if (row == null) {
+            rows.add(new GroupSnapshotRow(gno, "MISSING", null, null, null));
+          } else {
+            rows.add(view.includePayload() ? row : new GroupSnapshotRow(gno, row.status(), row.validateResult(), null, null));
+          }
         }
 
         Integer nextGroupNo = computeNextGroupNo(app.currentGroupNo(), plan);
@@ -446,12 +762,70 @@ public class ObsRuntimeService {
       });
   }
 
-  private JsonNode safeReadJson(String json) {
-    if (json == null) return null;
-    try {
-      return objectMapper.readTree(json);
-    } catch (Exception e) {
-      return null;
+  /**
+   * Stored group states (payload text as stored, never parsed), cached per application version (see ApplicationSnapshotCache).
+   * Partial views are served from the full cached entry when present, else by a narrower query (not cached):
+   * statuses only => no payload column; some groups => only those rows.
+   */
+  private Mono<Map<Integer, GroupSnapshotRow>> storedGroups(ObsApplicationEntity app, SnapshotView view) {
+    int version = app.version() == null ? 0 : app.version();
+
+    if (!view.isFull()) {
+      Map<Integer, GroupSnapshotRow> cached = snapshotCache.peek(app.applicationId(), version);
+      if (cached != null) return Mono.just(cached);
+
+      if (!view.includePayload()) {
+        return groupRepo.findStatusesByApplicationId(app.applicationId())
+          .collectMap(ObsGroupStateRepository.GroupStatusRow::groupNo, r -> new GroupSnapshotRow(
+            r.groupNo(),
+            r.status(),
+            "VALIDATED".equalsIgnoreCase(r.status()),
+            null,
+            null
+          ));
+      }
+
+      if (view.groupNos() != null) {
+        return toRows(groupRepo.findByApplicationIdAndGroupNos(
+          app.applicationId(),
+          view.groupNos().toArray(Integer[]::new)
+        ));
+      }
+    }
+
+    return snapshotCache.get(app.applicationId(), version, () ->
+      toRows(groupRepo.findAllByApplicationId(app.applicationId())));
+  }
+
+  private static Mono<Map<Integer, GroupSnapshotRow>> toRows(Flux<ObsGroupStateEntity> states) {
+    return states
+      .collectList()
+      .map(list -> {
+        Map<Integer, GroupSnapshotRow> byGroupNo = new HashMap<>();
+        for (ObsGroupStateEntity s : list) {
+          boolean ok = "VALIDATED".equalsIgnoreCase(s.status());
+          byGroupNo.putIfAbsent(s.groupNo(), new GroupSnapshotRow(
+            s.groupNo(),
+            s.status(),
+            ok ? Boolean.TRUE : Boolean.FALSE,
+            s.payloadJson(),
+            s.errorsJson()
+          ));
+        }
+        return Map.copyOf(byGroupNo);
+      });
+  }
+
+  /**
+   * Streaming check (tokens only, no tree): one JSON value and nothing after it.
+   */
+  private boolean isSingleJsonValue(String json) {
+    try (JsonParser p = objectMapper.getFactory().createParser(json)) {
+      if (p.nextToken() == null) return false;
+      p.skipChildren();
+      return p.nextToken() == null;
+    } catch (IOException e) {
+      return false;
     }
   }
 
@@ -459,28 +833,22 @@ public class ObsRuntimeService {
     int current = (currentGroupNo == null) ? 0 : currentGroupNo;
     if (current == 0) return plan.groupNosInOrder().get(0);
 
-    Integer pos = plan.posByGroupNo().get(current);
-    if (pos == null) return plan.groupNosInOrder().get(0);
+    if (!plan.posByGroupNo().containsKey(current)) return plan.groupNosInOrder().get(0);
 
-    int nextPos = pos + 1;
-    for (Map.Entry<Integer, Integer> e : plan.posByGroupNo().entrySet()) {
-      if (e.getValue() == nextPos) return e.getKey();
-    }
-    return null;
+    return plan.nextGroupNo(current);
   }
 
-  private Mono<Void> invalidateLaterGroups(UUID applicationId, JourneyPlanService.JourneyPlan plan, int editedPos) {
-    List<Integer> later = plan.posByGroupNo().entrySet().stream()
-      .filter(e -> e.getValue() > editedPos)
-      .map(Map.Entry::getKey)
-      .sorted()
-      .toList();
+  private Mono<List<Integer>> invalidateLaterGroups(
+    UUID applicationId,
+    JourneyPlanService.JourneyPlan plan,
+    int editedGroupNo
+  ) {
+    List<Integer> later = plan.groupNosAfter(editedGroupNo);
 
-    if (later.isEmpty()) return Mono.empty();
+    if (later.isEmpty()) return Mono.just(List.of());
 
-    return Flux.fromIterable(later)
-      .concatMap(gno -> groupRepo.invalidateOne(applicationId, gno))
-      .then();
+    // only the groups that actually flipped VALIDATED -> INVALIDATED
+    return groupRepo.invalidateMany(applicationId, later.toArray(Integer[]::new)).collectList();
   }
 
   /**
@@ -494,19 +862,19 @@ public class ObsRuntimeService {
     OffsetDateTime now = OffsetDateTime.now();
     OffsetDateTime expiresAt = now.plus(props.sessionTtl());
 
-    return sessionRepo.findActive(sessionId)
+    return sessionStore.findActive(sessionId)
       .map(s -> new SessionCtx(s, false))
       .switchIfEmpty(
         // session is not active (expired or not ACTIVE). Try to find it anyway:
-        sessionRepo.findById(sessionId)
+        sessionStore.findById(sessionId)
           .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.GONE, "Session expired")))
           .flatMap(old -> {
             // Best-effort: mark old expired (no-op if already)
-            Mono<Void> expireOld = sessionRepo.markExpired(old.sessionId()).then();
+            Mono<Void> expireOld = sessionStore.markExpired(old.sessionId());
 
             // Create a fresh session pointing to the same application
             return expireOld
-              .then(sessionRepo.insertNew(UUID.randomUUID(), old.applicationId(), "ACTIVE", expiresAt))
+              .then(sessionStore.create(UUID.randomUUID(), old.applicationId(), expiresAt))
               .map(newSess -> new SessionCtx(newSess, true));
           })
       );
@@ -514,15 +882,37 @@ public class ObsRuntimeService {
 
   public record SubmitOutcome(
     boolean validateResult,
+    List<ValidationError> errors,       // empty when validateResult
     UUID effectiveSessionId,
     OffsetDateTime sessionExpiresAt,
-    boolean sessionRenewed
+    boolean sessionRenewed,
+    UUID applicationId,
+    int groupNo,
+    String applicationStatus,
+    int currentGroupNo,
+    List<Integer> invalidatedGroupNos   // later groups flipped by a back-edit
   ) {
   }
 
   private record SessionCtx(ObsSessionEntity session, boolean renewed) {
   }
 
+  /**
+   * Result of validatePayload; errorsJson is what goes to obs_group_state.errors (null when valid).
+   */
+  private record PayloadValidation(boolean valid, List<ValidationError> errors, String errorsJson) {
+    static final PayloadValidation VALID = new PayloadValidation(true, List.of(), null);
+  }
+
+  /**
+   * Optimistic submit lost the race on obs_application.version (retried, never surfaces as-is).
+   */
+  private static final class VersionConflictException extends RuntimeException {
+    VersionConflictException() {
+      super("obs_application version changed", null, false, false);
+    }
+  }
+
 
   private record AppAndSession(ObsApplicationEntity app, ObsSessionEntity sess) {
   }
@@ -555,11 +945,33 @@ public class ObsRuntimeService {
   ) {
   }
 
+  /**
+   * Which part of the snapshot to return: includePayload=false => statuses only; groupNos=null => all groups.
+   */
+  public record SnapshotView(boolean includePayload, Set<Integer> groupNos) {
+    public static final SnapshotView FULL = new SnapshotView(true, null);
+
+    boolean isFull() {
+      return includePayload && groupNos == null;
+    }
+
+    boolean includes(int groupNo) {
+      return groupNos == null || groupNos.contains(groupNo);
+    }
+  }
+
+  /**
+   * result == null => not modified (etag and sessionExpiresAt still set).
+   */
+  public record ConditionalCurrent(String etag, OffsetDateTime sessionExpiresAt, CurrentResult result) {
+  }
+
   public record GroupSnapshotRow(
     int groupNo,
     String status,
     Boolean validateResult,
-    JsonNode payload
+    String payloadJson,            // obs_group_state.payload::text, passed through to the response raw
+    String errorsJson              // obs_group_state.errors::text (INVALIDATED by validation), raw as well
   ) {
   }
 }
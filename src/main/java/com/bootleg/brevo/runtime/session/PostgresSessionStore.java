@@ -0,0 +1,70 @@
+package com.bootleg.brevo.runtime.session;
+
+import com.bootleg.brevo.runtime.entity.ObsSessionEntity;
+import com.bootleg.brevo.runtime.repo.ObsSessionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Sessions as obs_session rows; touches go through SessionTouchCoalescer unless it is disabled.
+ */
+@Component
+@ConditionalOnProperty(prefix = "obs.runtime", name = "session-store", havingValue = "postgres", matchIfMissing = true)
+public class PostgresSessionStore implements SessionStore {
+
+  private final ObsSessionRepository sessionRepo;
+  private final SessionTouchCoalescer touchCoalescer;
+
+  public PostgresSessionStore(ObsSessionRepository sessionRepo, SessionTouchCoalescer touchCoalescer) {
+    this.sessionRepo = sessionRepo;
+    this.touchCoalescer = touchCoalescer;
+  }
+
+  @Override
+  public Mono<ObsSessionEntity> create(UUID sessionId, UUID applicationId, OffsetDateTime expiresAt) {
+    return sessionRepo.insertNew(sessionId, applicationId, "ACTIVE", expiresAt)
+      .doOnNext(sess -> {
+        if (touchCoalescer.enabled()) touchCoalescer.written(sessionId, expiresAt);
+      });
+  }
+
+  @Override
+  public Mono<ObsSessionEntity> findActive(UUID sessionId) {
+    return sessionRepo.findActive(sessionId);
+  }
+
+  @Override
+  public Mono<ObsSessionEntity> findById(UUID sessionId) {
+    return sessionRepo.findById(sessionId);
+  }
+
+  @Override
+  public Mono<Void> touch(UUID sessionId, OffsetDateTime newExpiresAt) {
+    if (touchCoalescer.enabled()) {
+      touchCoalescer.touch(sessionId, newExpiresAt);
+      return Mono.empty();
+    }
+    return sessionRepo.touch(sessionId, newExpiresAt).then();
+  }
+
+  @Override
+  public Mono<Void> markExpired(UUID sessionId) {
+    touchCoalescer.forget(sessionId);
+    return sessionRepo.markExpired(sessionId).then();
+  }
+
+  @Override
+  public Mono<Void> expireAllActiveByApplicationId(UUID applicationId) {
+    return sessionRepo.expireAllActiveByApplicationId(applicationId).then();
+  }
+
+  @Override
+  public Mono<ReapedBatch> expireDueBatch(OffsetDateTime cutoff, int batchSize) {
+    // expires_at is the sliding expiry here: every due row is expired
+    return sessionRepo.expireDueBatch(cutoff, batchSize).map(n -> new ReapedBatch(n, n));
+  }
+}
@@ -0,0 +1,147 @@
+package com.bootleg.brevo.runtime.session;
+
+import com.bootleg.brevo.runtime.entity.ObsSessionEntity;
+import com.bootleg.brevo.runtime.repo.ObsSessionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ACTIVE sessions as Redis hashes with a native key TTL; a touch is one PEXPIREAT, no Postgres write.
+ * <p>
+ * obs_session is only written on state change (create, expire), so it stays the durable history
+ * (and the source for auto-renew once the Redis key is gone). In this mode obs_session.expires_at
+ * is the initial expiry, not the sliding one: SessionReaper asks Redis before expiring a due row
+ * (expireDueBatch).
+ * <p>
+ * Key: obs:session:{sessionId} -> {applicationId, createdAt}; no key = not active.
+ */
+@Component
+@ConditionalOnProperty(prefix = "obs.runtime", name = "session-store", havingValue = "redis")
+public class RedisSessionStore implements SessionStore {
+
+  private static final String KEY_PREFIX = "obs:session:";
+
+  private final ReactiveStringRedisTemplate redis;
+  private final ObsSessionRepository sessionRepo;
+
+  public RedisSessionStore(ReactiveStringRedisTemplate redis, ObsSessionRepository sessionRepo) {
+    this.redis = redis;
+    this.sessionRepo = sessionRepo;
+  }
+
+  private static String key(UUID sessionId) {
+    return KEY_PREFIX + sessionId;
+  }
+
+  @Override
+  public Mono<ObsSessionEntity> create(UUID sessionId, UUID applicationId, OffsetDateTime expiresAt) {
+    return sessionRepo.insertNew(sessionId, applicationId, "ACTIVE", expiresAt)
+      .flatMap(sess -> redis.opsForHash()
+        .putAll(key(sessionId), Map.of(
+          "applicationId", applicationId.toString(),
+          "createdAt", sess.createdAt() == null ? OffsetDateTime.now().toString() : sess.createdAt().toString()
+        ))
+        .then(redis.expireAt(key(sessionId), expiresAt.toInstant()))
+        .thenReturn(sess));
+  }
+
+  @Override
+  public Mono<ObsSessionEntity> findActive(UUID sessionId) {
+    String key = key(sessionId);
+
+    // both commands go out together on the shared connection
+    return Mono.zip(
+        redis.opsForHash().entries(key)
+          .collectMap(e -> e.getKey().toString(), e -> e.getValue().toString()),
+        redis.getExpire(key).defaultIfEmpty(Duration.ZERO)
+      )
+      .flatMap(t -> {
+        Map<String, String> h = t.getT1();
+        Duration ttl = t.getT2();
+        if (h.isEmpty() || ttl.isZero() || ttl.isNegative()) return Mono.empty();
+
+        OffsetDateTime createdAt = OffsetDateTime.parse(h.get("createdAt"));
+        return Mono.just(new ObsSessionEntity(
+          sessionId,
+          UUID.fromString(h.get("applicationId")),
+          "ACTIVE",
+          OffsetDateTime.ofInstant(Instant.now().plus(ttl), ZoneOffset.UTC),
+          createdAt,
+          createdAt
+        ));
+      });
+  }
+
+  @Override
+  public Mono<ObsSessionEntity> findById(UUID sessionId) {
+    return findActive(sessionId)
+      .switchIfEmpty(Mono.defer(() -> sessionRepo.findById(sessionId)));
+  }
+
+  @Override
+  public Mono<Void> touch(UUID sessionId, OffsetDateTime newExpiresAt) {
+    // PEXPIREAT never creates a key: touching an expired session stays a no-op
+    return redis.expireAt(key(sessionId), newExpiresAt.toInstant()).then();
+  }
+
+  @Override
+  public Mono<Void> markExpired(UUID sessionId) {
+    return redis.delete(key(sessionId))
+      .then(sessionRepo.markExpired(sessionId))
+      .then();
+  }
+
+  @Override
+  public Mono<Void> expireAllActiveByApplicationId(UUID applicationId) {
+    return sessionRepo.expireAllActiveByApplicationIdReturning(applicationId)
+      .map(RedisSessionStore::key)
+      .collectList()
+      .flatMap(keys -> keys.isEmpty() ? Mono.empty() : redis.delete(keys.toArray(String[]::new)).then());
+  }
+
+  /**
+   * A due row whose key is gone (Redis TTL ran out) is expired; one whose key is still alive gets the key's
+   * expiry written back, so it is not examined again before it can actually be due.
+   */
+  @Override
+  public Mono<ReapedBatch> expireDueBatch(OffsetDateTime cutoff, int batchSize) {
+    return sessionRepo.findDueSessionIds(cutoff, batchSize)
+      .flatMap(id -> redis.getExpire(key(id))
+        .defaultIfEmpty(Duration.ZERO)
+        .map(ttl -> Map.entry(id, ttl)))
+      .collectList()
+      .flatMap(due -> {
+        Instant now = Instant.now();
+        List<UUID> gone = new ArrayList<>();
+        List<UUID> alive = new ArrayList<>();
+        List<OffsetDateTime> aliveUntil = new ArrayList<>();
+        for (Map.Entry<UUID, Duration> e : due) {
+          Duration ttl = e.getValue();
+          if (ttl.isZero() || ttl.isNegative()) {
+            gone.add(e.getKey());
+          } else {
+            alive.add(e.getKey());
+            aliveUntil.add(OffsetDateTime.ofInstant(now.plus(ttl), ZoneOffset.UTC));
+          }
+        }
+
+        Mono<Integer> expired = gone.isEmpty() ? Mono.just(0)
+          : sessionRepo.expireActiveByIds(gone.toArray(UUID[]::new));
+        Mono<Integer> synced = alive.isEmpty() ? Mono.just(0)
+          : sessionRepo.touchAll(alive.toArray(UUID[]::new), aliveUntil.toArray(OffsetDateTime[]::new));
+
+        return expired.zipWith(synced, (n, ignored) -> new ReapedBatch(due.size(), n));
+      });
+  }
+}
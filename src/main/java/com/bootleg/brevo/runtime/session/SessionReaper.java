@@ -0,0 +1,126 @@
+package com.bootleg.brevo.runtime.session;
+
+import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
+import com.bootleg.brevo.runtime.repo.ObsSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Background expiry of obs_session rows, whichever SessionStore is active.
+ * <p>
+ * Every {@code obs.runtime.reaper-interval}: flip ACTIVE rows past their expiry to EXPIRED
+ * (SessionStore.expireDueBatch: with the Redis store, only rows whose Redis key is gone), then (optionally)
+ * delete non-ACTIVE rows older than {@code reaper-delete-after}. Each statement handles at most
+ * {@code reaper-batch-size} rows (FOR UPDATE SKIP LOCKED, so pods do not block each other) and one run
+ * stops after {@code reaper-max-batches} statements per kind.
+ * <p>
+ * The cutoff is pushed back by the touch granularity + flush interval: SessionTouchCoalescer may hold
+ * an extension that is not written yet.
+ * <p>
+ * Metrics: obs.sessions.reaped{action=expired|deleted}, obs.sessions.reaper.lag (seconds behind the oldest due row).
+ */
+@Slf4j
+@Component
+public class SessionReaper {
+
+  private final SessionStore sessionStore;
+  private final ObsSessionRepository sessionRepo;
+  private final ObsRuntimeProperties props;
+
+  private final Counter expiredCounter;
+  private final Counter deletedCounter;
+  private final AtomicLong lagSeconds = new AtomicLong();
+
+  private volatile Disposable subscription;
+
+  public SessionReaper(
+    SessionStore sessionStore,
+    ObsSessionRepository sessionRepo,
+    ObsRuntimeProperties props,
+    MeterRegistry meterRegistry
+  ) {
+    this.sessionStore = sessionStore;
+    this.sessionRepo = sessionRepo;
+    this.props = props;
+    this.expiredCounter = Counter.builder("obs.sessions.reaped").tag("action", "expired").register(meterRegistry);
+    this.deletedCounter = Counter.builder("obs.sessions.reaped").tag("action", "deleted").register(meterRegistry);
+    Gauge.builder("obs.sessions.reaper.lag", lagSeconds, AtomicLong::get)
+      .baseUnit("seconds")
+      .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    Duration every = props.reaperInterval();
+    if (every.isZero() || every.isNegative()) return;
+
+    subscription = Flux.interval(every, every)
+      .onBackpressureDrop()
+      .concatMap(tick -> reapOnce()
+        .onErrorResume(e -> {
+          log.warn("Session reaper run failed", e);
+          return Mono.empty();
+        }))
+      .subscribe();
+  }
+
+  @PreDestroy
+  public void stop() {
+    Disposable d = subscription;
+    if (d != null) d.dispose();
+  }
+
+  Mono<Void> reapOnce() {
+    OffsetDateTime now = OffsetDateTime.now();
+    OffsetDateTime expireCutoff = now.minus(props.touchGranularity()).minus(props.touchFlushInterval());
+
+    Mono<Long> expired = batches(size -> sessionStore.expireDueBatch(expireCutoff, size))
+      .doOnNext(expiredCounter::increment);
+
+    Duration keep = props.reaperDeleteAfter();
+    Mono<Long> deleted = keep.isZero() || keep.isNegative() ? Mono.just(0L)
+      : batches(size -> sessionRepo.deleteClosedBatch(now.minus(keep), size)
+        .map(n -> new SessionStore.ReapedBatch(n, n)))
+      .doOnNext(deletedCounter::increment);
+
+    Mono<Void> lag = sessionRepo.findOldestDueExpiry(expireCutoff)
+      .map(oldest -> Duration.between(oldest, OffsetDateTime.now()).toSeconds())
+      .defaultIfEmpty(0L)
+      .doOnNext(lagSeconds::set)
+      .then();
+
+    return expired
+      .zipWith(deleted)
+      .doOnNext(t -> {
+        if (t.getT1() > 0 || t.getT2() > 0) {
+          log.info("Session reaper: {} expired, {} deleted", t.getT1(), t.getT2());
+        }
+      })
+      .then(lag);
+  }
+
+  /**
+   * Repeat a batch while it examines a whole batch, at most reaper-max-batches times; sums what it expired/deleted.
+   */
+  private Mono<Long> batches(Function<Integer, Mono<SessionStore.ReapedBatch>> batch) {
+    int size = props.reaperBatchSize();
+
+    return Flux.range(0, props.reaperMaxBatches())
+      .concatMap(i -> batch.apply(size))
+      .takeUntil(b -> b.examined() < size)
+      .reduce(0L, (sum, b) -> sum + b.expired());
+  }
+}
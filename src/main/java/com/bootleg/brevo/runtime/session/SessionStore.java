@@ -0,0 +1,50 @@
+package com.bootleg.brevo.runtime.session;
+
+import com.bootleg.brevo.runtime.entity.ObsSessionEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Where ACTIVE sessions (and their sliding TTL) live.
+ * Selected with {@code obs.runtime.session-store}: postgres (default) or redis.
+ */
+public interface SessionStore {
+
+  /**
+   * New ACTIVE session.
+   */
+  Mono<ObsSessionEntity> create(UUID sessionId, UUID applicationId, OffsetDateTime expiresAt);
+
+  /**
+   * ACTIVE and not expired, else empty.
+   */
+  Mono<ObsSessionEntity> findActive(UUID sessionId);
+
+  /**
+   * Any status (used to auto-renew an expired session), else empty.
+   */
+  Mono<ObsSessionEntity> findById(UUID sessionId);
+
+  /**
+   * Slide the TTL of an ACTIVE session (no-op for anything else).
+   */
+  Mono<Void> touch(UUID sessionId, OffsetDateTime newExpiresAt);
+
+  Mono<Void> markExpired(UUID sessionId);
+
+  Mono<Void> expireAllActiveByApplicationId(UUID applicationId);
+
+  /**
+   * SessionReaper: look at up to batchSize ACTIVE rows whose obs_session.expires_at is before cutoff
+   * and flip the ones that are really expired to EXPIRED.
+   */
+  Mono<ReapedBatch> expireDueBatch(OffsetDateTime cutoff, int batchSize);
+
+  /**
+   * examined == batchSize => more rows may be due; expired <= examined.
+   */
+  record ReapedBatch(int examined, int expired) {
+  }
+}
@@ -0,0 +1,138 @@
+package com.bootleg.brevo.runtime.session;
+
+import com.bootleg.brevo.runtime.config.ObsRuntimeProperties;
+import com.bootleg.brevo.runtime.repo.ObsSessionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind for obs_session TTL touches (Postgres session store).
+ * <p>
+ * A touch only records the wanted expiry in memory. Every {@code obs.runtime.touch-flush-interval}
+ * the sessions whose expiry moved by at least {@code obs.runtime.touch-granularity} since the last write
+ * are extended in one UPDATE ... FROM unnest(...). The DB expiry lags by at most granularity + interval,
+ * which a 30 min sliding TTL does not notice; polling UIs stop producing one UPDATE per request.
+ * <p>
+ * Granularity zero disables it (PostgresSessionStore touches directly).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "obs.runtime", name = "session-store", havingValue = "postgres", matchIfMissing = true)
+public class SessionTouchCoalescer {
+
+  private final ObsSessionRepository sessionRepo;
+  private final Duration granularity;
+  private final Duration flushInterval;
+
+  private final Map<UUID, Touch> touches = new ConcurrentHashMap<>();
+
+  private volatile Disposable subscription;
+
+  public SessionTouchCoalescer(ObsSessionRepository sessionRepo, ObsRuntimeProperties props) {
+    this.sessionRepo = sessionRepo;
+    this.granularity = props.touchGranularity();
+    this.flushInterval = props.touchFlushInterval();
+  }
+
+  public boolean enabled() {
+    return !granularity.isZero() && !granularity.isNegative();
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!enabled()) return;
+
+    subscription = Flux.interval(flushInterval, flushInterval)
+      .onBackpressureDrop()
+      .concatMap(tick -> flush()
+        .onErrorResume(e -> {
+          log.warn("Session touch flush failed", e);
+          return Mono.empty();
+        }))
+      .subscribe();
+  }
+
+  @PreDestroy
+  public void stop() {
+    Disposable d = subscription;
+    if (d == null) return;
+    d.dispose();
+
+    try {
+      flush().block(Duration.ofSeconds(5));
+    } catch (RuntimeException e) {
+      log.warn("Final session touch flush failed", e);
+    }
+  }
+
+  /**
+   * Record a sliding-TTL extension; written by the next flush.
+   */
+  public void touch(UUID sessionId, OffsetDateTime newExpiresAt) {
+    touches.merge(sessionId, new Touch(null, newExpiresAt),
+      (prev, t) -> newExpiresAt.isAfter(prev.pending()) ? new Touch(prev.written(), newExpiresAt) : prev);
+  }
+
+  /**
+   * The DB already holds this expiry (session just inserted): touches within granularity of it are skipped.
+   */
+  public void written(UUID sessionId, OffsetDateTime expiresAt) {
+    touches.put(sessionId, new Touch(expiresAt, expiresAt));
+  }
+
+  public void forget(UUID sessionId) {
+    touches.remove(sessionId);
+  }
+
+  Mono<Void> flush() {
+    OffsetDateTime now = OffsetDateTime.now();
+    List<UUID> ids = new ArrayList<>();
+    List<OffsetDateTime> expiries = new ArrayList<>();
+
+    for (Map.Entry<UUID, Touch> e : touches.entrySet()) {
+      Touch t = e.getValue();
+
+      // not touched before its expiry: the session is gone, nothing left to extend
+      if (t.pending().isBefore(now)) {
+        touches.remove(e.getKey(), t);
+        continue;
+      }
+
+      if (t.written() == null || Duration.between(t.written(), t.pending()).compareTo(granularity) >= 0) {
+        ids.add(e.getKey());
+        expiries.add(t.pending());
+      }
+    }
+
+    if (ids.isEmpty()) return Mono.empty();
+
+    return sessionRepo.touchAll(ids.toArray(UUID[]::new), expiries.toArray(OffsetDateTime[]::new))
+      .doOnSuccess(n -> {
+        for (int i = 0; i < ids.size(); i++) {
+          OffsetDateTime exp = expiries.get(i);
+          touches.computeIfPresent(ids.get(i), (k, t) -> new Touch(exp, t.pending()));
+        }
+      })
+      .then();
+  }
+
+  private record Touch(
+    OffsetDateTime written,        // expiry last written to obs_session (null = unknown)
+    OffsetDateTime pending         // latest expiry asked for
+  ) {
+  }
+}
@@ -0,0 +1,54 @@
+package com.bootleg.brevo.validation;
+
+import com.bootleg.brevo.config.model.FieldType;
+
+/**
+ * One submitted field value, prepared once per field before its rules run (not once per rule).
+ * <p>
+ * NOMINAL fields are parsed to a ScaledDecimal up front; TEXT fields only if a rule asks for a number.
+ * Per request and per thread: not shared, not thread-safe.
+ */
+public final class FieldValue {
+
+  private final String raw;
+  private final String trimmed;
+  private ScaledDecimal number;
+  private boolean numberParsed;
+
+  private FieldValue(String raw) {
+    this.raw = raw;
+    this.trimmed = raw.trim();
+  }
+
+  public static FieldValue of(String raw, FieldType type) {
+    FieldValue v = new FieldValue(raw);
+    if (type == FieldType.NOMINAL && !v.blank()) v.number();
+    return v;
+  }
+
+  /**
+   * As submitted.
+   */
+  public String raw() {
+    return raw;
+  }
+
+  public String trimmed() {
+    return trimmed;
+  }
+
+  public boolean blank() {
+    return trimmed.isEmpty();
+  }
+
+  /**
+   * Numeric value, or null if the value is not a number (parsed at most once).
+   */
+  public ScaledDecimal number() {
+    if (!numberParsed) {
+      number = ScaledDecimal.parse(trimmed);
+      numberParsed = true;
+    }
+    return number;
+  }
+}
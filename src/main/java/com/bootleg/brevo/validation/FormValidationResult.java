@@ -6,8 +6,10 @@ public record FormValidationResult(
   boolean valid,
   List<ValidationError> errors
 ) {
+  private static final FormValidationResult OK = new FormValidationResult(true, List.of());
+
   public static FormValidationResult ok() {
-    return new FormValidationResult(true, List.of());
+    return OK;
   }
 
   public static FormValidationResult fail(List<ValidationError> errors) {
@@ -0,0 +1,49 @@
+package com.bootleg.brevo.validation;
+
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+
+import java.util.Map;
+
+/**
+ * The submitted fields of one form, resolved through its plan: each field's FieldValue is built at most once,
+ * whether it is read for its own rules or by another field's CROSS_FIELD rule.
+ * Per request and per thread: not shared, not thread-safe.
+ */
+public final class FormValues {
+
+  private final FormValidationPlan plan;
+  private final Map<String, String> payload;
+  private final FieldValue[] values;        // by slot index, filled on first read
+  private final boolean[] resolved;
+
+  public FormValues(FormValidationPlan plan, Map<String, String> payload) {
+    this.plan = plan;
+    this.payload = payload;
+    this.values = new FieldValue[plan.fields().size()];
+    this.resolved = new boolean[values.length];
+  }
+
+  /**
+   * @return the field's value, or null if it was not submitted
+   */
+  public FieldValue get(FieldSlot slot) {
+    int i = slot.index();
+    if (!resolved[i]) {
+      String raw = payload.get(slot.field().fieldCode());
+      values[i] = raw == null ? null : FieldValue.of(raw, slot.field().fieldType());
+      resolved[i] = true;
+    }
+    return values[i];
+  }
+
+  /**
+   * Same lookup as the form's own fields (config field code -> plan slot -> payload).
+   *
+   * @return the field's value, or null if the form has no such field or it was not submitted
+   */
+  public FieldValue get(String fieldCode) {
+    FieldSlot slot = plan.fieldsByCode().get(fieldCode);
+    return slot == null ? null : get(slot);
+  }
+}
@@ -4,13 +4,20 @@ import java.util.List;
 
 public record GroupValidationResult(
   boolean valid,
-  List<ValidationError> errors
+  List<ValidationError> errors,
+  boolean truncated          // stopped at ValidationOptions.maxErrors: there may be more errors
 ) {
+  private static final GroupValidationResult OK = new GroupValidationResult(true, List.of(), false);
+
   public static GroupValidationResult ok() {
-    return new GroupValidationResult(true, List.of());
+    return OK;
   }
 
   public static GroupValidationResult fail(List<ValidationError> errors) {
-    return new GroupValidationResult(false, List.copyOf(errors));
+    return new GroupValidationResult(false, List.copyOf(errors), false);
+  }
+
+  public static GroupValidationResult of(ValidationErrors errors) {
+    return errors.isEmpty() ? OK : new GroupValidationResult(false, List.copyOf(errors.list()), errors.truncated());
   }
 }
@@ -0,0 +1,94 @@
+package com.bootleg.brevo.validation;
+
+import java.math.BigDecimal;
+
+/**
+ * Decimal as unscaled long + scale (value = unscaled / 10^scale) for the common case (up to 18 digits),
+ * BigDecimal only beyond that. Parsing and comparing stay allocation- and exception-free on the fast path.
+ */
+public record ScaledDecimal(long unscaled, int scale, BigDecimal big) {
+
+  private static final int MAX_FAST_DIGITS = 18;
+  private static final long[] POW10 = new long[MAX_FAST_DIGITS + 1];
+
+  static {
+    POW10[0] = 1;
+    for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+  }
+
+  /**
+   * Plain decimal text ("-12", "3.50", "+7."); null if s is not a number.
+   * Anything the fast path does not handle (more digits, exponents) goes through BigDecimal once.
+   */
+  public static ScaledDecimal parse(String s) {
+    int n = s.length();
+    if (n == 0) return null;
+
+    int i = 0;
+    boolean negative = false;
+    char c = s.charAt(0);
+    if (c == '+' || c == '-') {
+      negative = c == '-';
+      i++;
+    }
+
+    long unscaled = 0;
+    int digits = 0;
+    int scale = -1;               // -1 = no '.' seen yet
+    for (; i < n; i++) {
+      c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (digits == MAX_FAST_DIGITS) return parseSlow(s);
+        unscaled = unscaled * 10 + (c - '0');
+        digits++;
+        if (scale >= 0) scale++;
+      } else if (c == '.' && scale < 0) {
+        scale = 0;
+      } else if (c == 'e' || c == 'E') {
+        return parseSlow(s);
+      } else {
+        return null;
+      }
+    }
+
+    if (digits == 0) return null;
+    return new ScaledDecimal(negative ? -unscaled : unscaled, Math.max(scale, 0), null);
+  }
+
+  /**
+   * For bounds from config (cold path).
+   */
+  public static ScaledDecimal of(BigDecimal d) {
+    if (d == null) return null;
+    if (d.scale() >= 0 && d.scale() <= MAX_FAST_DIGITS && d.precision() <= MAX_FAST_DIGITS) {
+      return new ScaledDecimal(d.unscaledValue().longValue(), d.scale(), null);
+    }
+    return new ScaledDecimal(0, 0, d);
+  }
+
+  private static ScaledDecimal parseSlow(String s) {
+    try {
+      return of(new BigDecimal(s));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  public int compareTo(ScaledDecimal other) {
+    if (big == null && other.big == null) {
+      if (scale == other.scale) return Long.compare(unscaled, other.unscaled);
+      try {
+        return scale < other.scale
+          ? Long.compare(Math.multiplyExact(unscaled, POW10[other.scale - scale]), other.unscaled)
+          : Long.compare(unscaled, Math.multiplyExact(other.unscaled, POW10[scale - other.scale]));
+      } catch (ArithmeticException overflow) {
+        // rare: fall back to BigDecimal
+      }
+    }
+    return toBigDecimal().compareTo(other.toBigDecimal());
+  }
+
+  public BigDecimal toBigDecimal() {
+    return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+  }
+}
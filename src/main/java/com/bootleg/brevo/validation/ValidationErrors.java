@@ -0,0 +1,64 @@
+package com.bootleg.brevo.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Error sink of one validation request, shared by all its forms: applies the ValidationOptions cap.
+ * The list is only created on the first error. Not thread-safe (one per request).
+ */
+public final class ValidationErrors {
+
+  private final ValidationOptions options;
+  private List<ValidationError> errors;
+
+  public ValidationErrors(ValidationOptions options) {
+    this.options = options;
+  }
+
+  /**
+   * false once the cap is reached (this error filled it, or it was dropped): callers stop right away.
+   */
+  public boolean add(ValidationError e) {
+    if (full()) return false;
+    if (errors == null) errors = new ArrayList<>();
+    errors.add(e);
+    return !full();
+  }
+
+  /**
+   * Merge another sink with the same options (one form validated on its own), in order, up to the cap.
+   */
+  public boolean addAll(ValidationErrors other) {
+    for (ValidationError e : other.list()) {
+      if (!add(e)) return false;
+    }
+    return !full();
+  }
+
+  /**
+   * Cap reached: callers stop walking fields/rules.
+   */
+  public boolean full() {
+    return options.maxErrors() > 0 && errors != null && errors.size() >= options.maxErrors();
+  }
+
+  public boolean firstPerField() {
+    return options.mode() == ValidationMode.FIRST_PER_FIELD;
+  }
+
+  public boolean isEmpty() {
+    return errors == null;
+  }
+
+  /**
+   * Validation stopped at the cap: there may be more errors than listed (nothing is walked to find out).
+   */
+  public boolean truncated() {
+    return full();
+  }
+
+  public List<ValidationError> list() {
+    return errors == null ? List.of() : errors;
+  }
+}
@@ -0,0 +1,9 @@
+package com.bootleg.brevo.validation;
+
+/**
+ * How much of a submission is checked once an error is found.
+ */
+public enum ValidationMode {
+  ALL,              // every field, every rule
+  FIRST_PER_FIELD   // stop at a field's first error, move on to the next field
+}
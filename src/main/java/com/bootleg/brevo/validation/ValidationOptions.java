@@ -0,0 +1,18 @@
+package com.bootleg.brevo.validation;
+
+/**
+ * Per-request validation settings.
+ * maxErrors caps the errors of the whole request (all forms together); 0 = unlimited.
+ * maxErrors = 1 is fail-fast: validation stops at the first error (the result is then marked truncated).
+ */
+public record ValidationOptions(
+  ValidationMode mode,
+  int maxErrors
+) {
+  public static final ValidationOptions ALL = new ValidationOptions(ValidationMode.ALL, 0);
+
+  public ValidationOptions {
+    if (mode == null) mode = ValidationMode.ALL;
+    if (maxErrors < 0) maxErrors = 0;
+  }
+}
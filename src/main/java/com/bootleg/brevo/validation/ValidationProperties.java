@@ -0,0 +1,42 @@
+package com.bootleg.brevo.validation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Validation defaults and hard limits. Limits are checked before any form is validated.
+ */
+@ConfigurationProperties(prefix = "brevo.validation")
+public record ValidationProperties(
+  ValidationMode mode,             // default mode (requests may pick another)
+  Integer maxErrors,               // default and ceiling for a request's maxErrors; 0 = unlimited
+  Integer maxSubmissions,          // form submissions per group payload
+  Integer maxFieldsPerForm,        // fields in one form submission
+  Integer maxFields,               // fields across all submissions of a payload
+  Integer parallelThreshold,       // validateAsync: forms per payload from which forms run in parallel; 0 = never
+  Integer parallelism              // validateAsync: threads of the form validation scheduler
+) {
+  public ValidationProperties {
+    if (mode == null) mode = ValidationMode.ALL;
+    if (maxErrors == null) maxErrors = 1_000;
+    if (maxSubmissions == null) maxSubmissions = 200;
+    if (maxFieldsPerForm == null) maxFieldsPerForm = 500;
+    if (maxFields == null) maxFields = 5_000;
+    if (parallelThreshold == null) parallelThreshold = 0;
+    if (parallelism == null || parallelism <= 0) parallelism = Runtime.getRuntime().availableProcessors();
+  }
+
+  public ValidationOptions defaults() {
+    return new ValidationOptions(mode, maxErrors);
+  }
+
+  /**
+   * Request overrides, never above the configured maxErrors.
+   */
+  public ValidationOptions options(ValidationMode requestedMode, Integer requestedMaxErrors) {
+    int cap = maxErrors;
+    if (requestedMaxErrors != null && requestedMaxErrors > 0) {
+      cap = cap == 0 ? requestedMaxErrors : Math.min(cap, requestedMaxErrors);
+    }
+    return new ValidationOptions(requestedMode == null ? mode : requestedMode, cap);
+  }
+}
@@ -0,0 +1,17 @@
+package com.bootleg.brevo.validation.plan;
+
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.validation.rule.RuleAction;
+
+/**
+ * A FieldRule paired with its RuleAction, resolved once at snapshot build time.
+ * action == null means no RuleAction is registered for the rule kind, or the rule is misconfigured
+ * (reported as UNKNOWN_RULE).
+ * artifact = RuleAction.compile(rule): compiled Pattern, allowed set, parsed bounds... (null if the kind needs none).
+ */
+public record CompiledRule(
+  FieldRule rule,
+  RuleAction action,
+  Object artifact
+) {
+}
@@ -0,0 +1,16 @@
+package com.bootleg.brevo.validation.plan;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+
+import java.util.List;
+
+/**
+ * One field of a FormValidationPlan.
+ * index = position inside the plan (fields are already in sort order).
+ */
+public record FieldSlot(
+  int index,
+  FieldDefinition field,
+  List<CompiledRule> rules
+) {
+}
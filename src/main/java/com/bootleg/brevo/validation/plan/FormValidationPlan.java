@@ -0,0 +1,23 @@
+package com.bootleg.brevo.validation.plan;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-sorted validation plan for one form.
+ * Built by ValidationPlanCompiler during PreloadStore refresh; the validate path only reads it.
+ */
+public record FormValidationPlan(
+  String formCode,
+
+  // field slots in sort order (slot.index() == position in this list)
+  List<FieldSlot> fields,
+
+  // fieldCode -> slot (also the "allowed fields" lookup)
+  Map<String, FieldSlot> fieldsByCode
+) {
+
+  public boolean allows(String fieldCode) {
+    return fieldsByCode.containsKey(fieldCode);
+  }
+}
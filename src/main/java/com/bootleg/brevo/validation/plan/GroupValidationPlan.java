@@ -0,0 +1,28 @@
+package com.bootleg.brevo.validation.plan;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything GroupPayloadValidationService needs for one (journey, group), precomputed.
+ * Forms are referenced by interned formId (see PreloadIndex); form plans live in the index.
+ */
+public record GroupValidationPlan(
+  String journeyCode,
+  int groupNo,
+
+  // forms in order, child forms flattened after their parent (interned codes)
+  List<String> formCodes,
+
+  // the same forms as formIds, for the allowed check. Read-only after build.
+  BitSet allowedFormIds,
+
+  // {parent: [childs]}
+  Map<String, List<String>> childForms
+) {
+
+  public boolean allowsForm(int formId) {
+    return formId >= 0 && allowedFormIds.get(formId);
+  }
+}
@@ -0,0 +1,77 @@
+package com.bootleg.brevo.validation.plan;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.FormDefinition;
+import com.bootleg.brevo.validation.rule.RuleAction;
+import com.bootleg.brevo.validation.rule.RuleActionRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Compiles config definitions into immutable validation plans.
+ * <p>
+ * Cold path only (called from PreloadStore refresh): sorting, rule action lookup, rule artifacts
+ * (RuleAction.compile: patterns, allowed sets, bounds) and allowed-field maps are done here once,
+ * so the validate path does no config-shaped work.
+ */
+@Slf4j
+@Component
+public class ValidationPlanCompiler {
+
+  private final RuleActionRegistry registry;
+
+  public ValidationPlanCompiler(RuleActionRegistry registry) {
+    this.registry = registry;
+  }
+
+  public FormValidationPlan compileForm(FormDefinition formDef) {
+    List<FieldDefinition> sorted = formDef.fields() == null ? List.of()
+      : formDef.fields().stream().sorted(Comparator.comparingInt(FieldDefinition::sortOrder)).toList();
+
+    Set<String> fieldCodes = new HashSet<>();
+    for (FieldDefinition fd : sorted) fieldCodes.add(fd.fieldCode());
+
+    List<FieldSlot> slots = new ArrayList<>(sorted.size());
+    Map<String, FieldSlot> byCode = new HashMap<>();
+
+    for (FieldDefinition fd : sorted) {
+      FieldSlot slot = new FieldSlot(slots.size(), fd, compileRules(formDef.formCode(), fieldCodes, fd));
+      slots.add(slot);
+      byCode.put(fd.fieldCode(), slot);
+    }
+
+    return new FormValidationPlan(formDef.formCode(), List.copyOf(slots), Map.copyOf(byCode));
+  }
+
+  private List<CompiledRule> compileRules(String formCode, Set<String> fieldCodes, FieldDefinition fd) {
+    List<FieldRule> rules = fd.rules();
+    if (rules == null || rules.isEmpty()) return List.of();
+
+    List<CompiledRule> out = new ArrayList<>(rules.size());
+    for (FieldRule rule : rules) {
+      if (rule == null || rule.kind() == null) continue;
+      out.add(compileRule(formCode, fieldCodes, fd, rule));
+    }
+    return List.copyOf(out);
+  }
+
+  // A misconfigured rule must not fail the whole refresh: it is kept without action (UNKNOWN_RULE at validate time)
+  private CompiledRule compileRule(String formCode, Set<String> fieldCodes, FieldDefinition fd, FieldRule rule) {
+    RuleAction action = registry.get(rule.kind());
+    if (action == null) return new CompiledRule(rule, null, null);
+
+    try {
+      Object artifact = action.compile(rule);
+      for (String ref : action.referencedFields(artifact)) {
+        if (!fieldCodes.contains(ref)) throw new IllegalArgumentException("Unknown field " + ref + " in form " + formCode);
+      }
+      return new CompiledRule(rule, action, artifact);
+    } catch (IllegalArgumentException e) {
+      log.warn("Ignoring misconfigured {} rule on {}.{}: {}", rule.kind(), formCode, fd.fieldCode(), e.getMessage());
+      return new CompiledRule(rule, null, null);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ScaledDecimal;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * rule_value = "<EQ|NE|LT|LE|GT|GE> <OTHER_FIELD_CODE>": compares this field with another field of the same form.
+ * Both ISO dates => date compare, both numeric => numeric compare (FieldValue.number(), parsed once per field),
+ * else text compare. The other field is resolved like the form's own fields (FormValues); it must be a field
+ * of the same form (checked by ValidationPlanCompiler, the rule is rejected otherwise).
+ * Skipped while the other field is not submitted or blank (its own REQUIRED rule reports that).
+ */
+@Component
+public class CrossFieldRuleAction implements RuleAction {
+
+  @Override
+  public RuleKind kind() {
+    return RuleKind.CROSS_FIELD;
+  }
+
+  @Override
+  public Object compile(FieldRule rule) {
+    String[] parts = rule.value() == null ? new String[0] : rule.value().trim().split("\\s+");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("CROSS_FIELD rule must look like '<OP> <FIELD_CODE>': " + rule.value());
+    }
+
+    Op op = Op.valueOf(parts[0].toUpperCase(Locale.ROOT));   // IllegalArgumentException for unknown ops
+    String other = parts[1].toUpperCase(Locale.ROOT);         // field codes are uppercase (config and payload keys)
+    return new Compiled(op, other, Map.of("op", op.name(), "otherField", other));
+  }
+
+  @Override
+  public Set<String> referencedFields(Object artifact) {
+    return Set.of(((Compiled) artifact).otherField());
+  }
+
+  @Override
+  public Optional<ValidationError> apply(
+    String formCode,
+    FieldDefinition field,
+    FieldValue value,
+    CompiledRule rule,
+    FormValues values
+  ) {
+    Compiled c = (Compiled) rule.artifact();
+
+    FieldValue other = values.get(c.otherField());
+    if (other == null || other.blank()) return Optional.empty();
+
+    if (c.op().test(compare(value, other))) return Optional.empty();
+
+    return Optional.of(new ValidationError(
+      formCode,
+      field.fieldCode(),
+      RuleKind.CROSS_FIELD.toString(),
+      "Value must be " + c.op().text + " " + c.otherField(),
+      c.meta()
+    ));
+  }
+
+  private static int compare(FieldValue a, FieldValue b) {
+    String x = a.trimmed();
+    String y = b.trimmed();
+    if (looksLikeDate(x) && looksLikeDate(y)) {
+      try {
+        return LocalDate.parse(x).compareTo(LocalDate.parse(y));
+      } catch (DateTimeParseException ignored) {
+        // fall through to text
+      }
+    } else {
+      ScaledDecimal nx = a.number();
+      ScaledDecimal ny = nx == null ? null : b.number();
+      if (nx != null && ny != null) return nx.compareTo(ny);
+    }
+    return x.compareTo(y);
+  }
+
+  // cheap shape check so the common text case never goes through a parse exception
+  private static boolean looksLikeDate(String s) {
+    return s.length() == 10 && s.charAt(4) == '-' && s.charAt(7) == '-';
+  }
+
+  private enum Op {
+    EQ("equal to"), NE("different from"), LT("less than"), LE("at most"), GT("greater than"), GE("at least");
+
+    final String text;
+
+    Op(String text) {
+      this.text = text;
+    }
+
+    boolean test(int cmp) {
+      return switch (this) {
+        case EQ -> cmp == 0;
+        case NE -> cmp != 0;
+        case LT -> cmp < 0;
+        case LE -> cmp <= 0;
+        case GT -> cmp > 0;
+        case GE -> cmp >= 0;
+      };
+    }
+  }
+
+  private record Compiled(Op op, String otherField, Map<String, Object> meta) {
+  }
+}
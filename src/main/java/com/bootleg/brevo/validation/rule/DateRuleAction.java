@@ -0,0 +1,95 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * rule_value = ISO date range "min..max" (either side optional, both inclusive). Bounds are parsed once per snapshot load.
+ */
+@Component
+public class DateRuleAction implements RuleAction {
+
+  @Override
+  public RuleKind kind() {
+    return RuleKind.DATE;
+  }
+
+  @Override
+  public Object compile(FieldRule rule) {
+    String v = rule.value() == null ? "" : rule.value().trim();
+    int sep = v.indexOf("..");
+    if (sep < 0) {
+      throw new IllegalArgumentException("DATE rule must look like 'min..max': " + v);
+    }
+
+    try {
+      LocalDate min = parseBound(v.substring(0, sep));
+      LocalDate max = parseBound(v.substring(sep + 2));
+      if (min != null && max != null && min.isAfter(max)) {
+        throw new IllegalArgumentException("DATE rule min is after max: " + v);
+      }
+
+      Map<String, Object> meta = new HashMap<>();
+      if (min != null) meta.put("min", min.toString());
+      if (max != null) meta.put("max", max.toString());
+      return new Compiled(min, max, Map.copyOf(meta));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("DATE rule bounds must be ISO dates: " + v, e);
+    }
+  }
+
+  @Override
+  public Optional<ValidationError> apply(
+    String formCode,
+    FieldDefinition field,
+    FieldValue value,
+    CompiledRule rule,
+    FormValues values
+  ) {
+    Compiled c = (Compiled) rule.artifact();
+
+    LocalDate date;
+    try {
+      date = LocalDate.parse(value.trimmed());
+    } catch (DateTimeParseException e) {
+      return Optional.of(new ValidationError(
+        formCode,
+        field.fieldCode(),
+        "TYPE",
+        "Invalid date (expected yyyy-MM-dd)",
+        Map.of("actual", value.raw())
+      ));
+    }
+
+    if ((c.min() != null && date.isBefore(c.min())) || (c.max() != null && date.isAfter(c.max()))) {
+      return Optional.of(new ValidationError(
+        formCode,
+        field.fieldCode(),
+        RuleKind.DATE.toString(),
+        "Date is out of range",
+        c.meta()
+      ));
+    }
+    return Optional.empty();
+  }
+
+  private static LocalDate parseBound(String s) {
+    String t = s.trim();
+    return t.isEmpty() ? null : LocalDate.parse(t);
+  }
+
+  private record Compiled(LocalDate min, LocalDate max, Map<String, Object> meta) {
+  }
+}
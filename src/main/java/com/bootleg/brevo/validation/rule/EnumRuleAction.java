@@ -0,0 +1,66 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * rule_value = allowed values separated by '|' (trimmed, case-sensitive). The set is built once per snapshot load.
+ */
+@Component
+public class EnumRuleAction implements RuleAction {
+
+  @Override
+  public RuleKind kind() {
+    return RuleKind.ENUM;
+  }
+
+  @Override
+  public Object compile(FieldRule rule) {
+    List<String> allowed = new ArrayList<>();
+    if (rule.value() != null) {
+      for (String v : rule.value().split("\\|")) {
+        String t = v.trim();
+        if (!t.isEmpty() && !allowed.contains(t)) allowed.add(t);
+      }
+    }
+    if (allowed.isEmpty()) {
+      throw new IllegalArgumentException("ENUM rule needs at least one allowed value");
+    }
+    return new Compiled(Set.copyOf(allowed), Map.of("allowed", List.copyOf(allowed)));
+  }
+
+  @Override
+  public Optional<ValidationError> apply(
+    String formCode,
+    FieldDefinition field,
+    FieldValue value,
+    CompiledRule rule,
+    FormValues values
+  ) {
+    Compiled c = (Compiled) rule.artifact();
+    if (c.allowed().contains(value.trimmed())) return Optional.empty();
+
+    return Optional.of(new ValidationError(
+      formCode,
+      field.fieldCode(),
+      RuleKind.ENUM.toString(),
+      "Value is not one of the allowed values",
+      c.meta()
+    ));
+  }
+
+  private record Compiled(Set<String> allowed, Map<String, Object> meta) {
+  }
+}
@@ -3,10 +3,14 @@ package com.bootleg.brevo.validation.rule;
 import com.bootleg.brevo.config.model.FieldDefinition;
 import com.bootleg.brevo.config.model.FieldRule;
 import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
 import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -19,25 +23,47 @@ public class LengthRuleAction implements RuleAction {
   }
 
   @Override
-  public Optional<ValidationError> apply(String formCode, FieldDefinition field, String rawValue, FieldRule rule) {
-    if (rawValue == null) return Optional.empty();
-
+  public Object compile(FieldRule rule) {
     Integer min = toInt(rule.min());
     Integer max = toInt(rule.max());
-    int len = rawValue.length();
+
+    // only the bounds that are set go into the error meta (Map.of rejects nulls)
+    Map<String, Object> meta = new LinkedHashMap<>();
+    if (min != null) meta.put("min", min);
+    if (max != null) meta.put("max", max);
+    return new Bounds(min, max, meta);
+  }
+
+  @Override
+  public Optional<ValidationError> apply(
+    String formCode,
+    FieldDefinition field,
+    FieldValue value,
+    CompiledRule rule,
+    FormValues values
+  ) {
+    Bounds bounds = (Bounds) rule.artifact();
+    Integer min = bounds.min();
+    Integer max = bounds.max();
+    int len = value.raw().length();
 
     if ((min != null && len < min) || (max != null && len > max)) {
+      Map<String, Object> meta = new LinkedHashMap<>(bounds.meta());
+      meta.put("actual", len);
       return Optional.of(new ValidationError(
         formCode,
         field.fieldCode(),
         RuleKind.LENGTH.toString(),
         "Length is out of range",
-        Map.of("min", min, "max", max, "actual", len)
+        meta
       ));
     }
     return Optional.empty();
   }
 
+  private record Bounds(Integer min, Integer max, Map<String, Object> meta) {
+  }
+
   private Integer toInt(BigDecimal bd) {
     if (bd == null) return null;
     try {
@@ -0,0 +1,63 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * rule_value = Java regex; the whole value must match. Compiled once per snapshot load.
+ */
+@Component
+public class RegexRuleAction implements RuleAction {
+
+  @Override
+  public RuleKind kind() {
+    return RuleKind.REGEX;
+  }
+
+  @Override
+  public Object compile(FieldRule rule) {
+    if (rule.value() == null || rule.value().isBlank()) {
+      throw new IllegalArgumentException("REGEX rule needs a pattern");
+    }
+    try {
+      Pattern pattern = Pattern.compile(rule.value());
+      return new Compiled(pattern, Map.of("pattern", rule.value()));
+    } catch (PatternSyntaxException e) {
+      throw new IllegalArgumentException("Invalid REGEX pattern: " + rule.value(), e);
+    }
+  }
+
+  @Override
+  public Optional<ValidationError> apply(
+    String formCode,
+    FieldDefinition field,
+    FieldValue value,
+    CompiledRule rule,
+    FormValues values
+  ) {
+    Compiled c = (Compiled) rule.artifact();
+    if (c.pattern().matcher(value.raw()).matches()) return Optional.empty();
+
+    return Optional.of(new ValidationError(
+      formCode,
+      field.fieldCode(),
+      RuleKind.REGEX.toString(),
+      "Value does not match the expected format",
+      c.meta()
+    ));
+  }
+
+  private record Compiled(Pattern pattern, Map<String, Object> meta) {
+  }
+}
@@ -3,17 +3,43 @@ package com.bootleg.brevo.validation.rule;
 import com.bootleg.brevo.config.model.FieldDefinition;
 import com.bootleg.brevo.config.model.FieldRule;
 import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
 import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
 
 import java.util.Optional;
+import java.util.Set;
 
 public interface RuleAction {
   RuleKind kind();
 
+  /**
+   * Cold path (ValidationPlanCompiler, once per snapshot load): turn the rule's parameters into
+   * whatever apply() needs, so nothing is parsed or compiled per request.
+   * Throws IllegalArgumentException when the rule is misconfigured.
+   */
+  default Object compile(FieldRule rule) {
+    return null;
+  }
+
+  /**
+   * Codes of the other fields of the same form a compiled rule reads (CROSS_FIELD).
+   * ValidationPlanCompiler rejects the rule when one of them is not a field of the form.
+   */
+  default Set<String> referencedFields(Object artifact) {
+    return Set.of();
+  }
+
+  /**
+   * value = this field, prepared once for all its rules (never blank here);
+   * values = the other fields of the submitted form, prepared the same way (cross-field rules).
+   */
   Optional<ValidationError> apply(
     String formCode,
     FieldDefinition field,
-    String rawValue,
-    FieldRule rule
+    FieldValue value,
+    CompiledRule rule,
+    FormValues values
   );
 }
@@ -3,10 +3,14 @@ package com.bootleg.brevo.validation.rule;
 import com.bootleg.brevo.config.model.FieldDefinition;
 import com.bootleg.brevo.config.model.FieldRule;
 import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ScaledDecimal;
 import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -19,35 +23,56 @@ public class ValueRuleAction implements RuleAction {
   }
 
   @Override
-  public Optional<ValidationError> apply(String formCode, FieldDefinition field, String rawValue, FieldRule rule) {
-    if (rawValue == null) return Optional.empty();
+  public Object compile(FieldRule rule) {
+    // only the bounds that are set go into the error meta (Map.of rejects nulls)
+    Map<String, Object> meta = new HashMap<>();
+    if (rule.min() != null) meta.put("min", rule.min());
+    if (rule.max() != null) meta.put("max", rule.max());
+    return new Bounds(
+      rule.min() == null ? null : ScaledDecimal.of(rule.min()),
+      rule.max() == null ? null : ScaledDecimal.of(rule.max()),
+      Map.copyOf(meta)
+    );
+  }
 
-    BigDecimal value;
-    try {
-      value = new BigDecimal(rawValue.trim());
-    } catch (Exception e) {
+  @Override
+  public Optional<ValidationError> apply(
+    String formCode,
+    FieldDefinition field,
+    FieldValue value,
+    CompiledRule compiled,
+    FormValues values
+  ) {
+    ScaledDecimal number = value.number();
+    if (number == null) {
       return Optional.of(new ValidationError(
         formCode,
         field.fieldCode(),
         "TYPE",
         "Invalid numeric value",
-        Map.of("actual", rawValue)
+        Map.of("actual", value.raw())
       ));
     }
 
-    BigDecimal min = rule.min();
-    BigDecimal max = rule.max();
+    Bounds bounds = (Bounds) compiled.artifact();
+    ScaledDecimal min = bounds.min();
+    ScaledDecimal max = bounds.max();
 
-    if ((min != null && value.compareTo(min) < 0) || (max != null && value.compareTo(max) > 0)) {
+    if ((min != null && number.compareTo(min) < 0) || (max != null && number.compareTo(max) > 0)) {
+      Map<String, Object> meta = new HashMap<>(bounds.meta());
+      meta.put("actual", number.toBigDecimal());
       return Optional.of(new ValidationError(
         formCode,
         field.fieldCode(),
         RuleKind.VALUE.toString(),
         "Value is out of range",
-        Map.of("min", min, "max", max, "actual", value)
+        meta
       ));
     }
 
     return Optional.empty();
   }
+
+  private record Bounds(ScaledDecimal min, ScaledDecimal max, Map<String, Object> meta) {
+  }
 }
@@ -1,91 +1,104 @@
 package com.bootleg.brevo.validation.services;
 
-import com.bootleg.brevo.config.model.FieldDefinition;
-import com.bootleg.brevo.config.model.FieldRule;
-import com.bootleg.brevo.config.model.FormDefinition;
 import com.bootleg.brevo.runtime.dto.FormSubmission;
+import com.bootleg.brevo.validation.FieldValue;
+import com.bootleg.brevo.validation.FormValues;
 import com.bootleg.brevo.validation.FormValidationResult;
 import com.bootleg.brevo.validation.ValidationError;
-import com.bootleg.brevo.validation.rule.RuleAction;
-import com.bootleg.brevo.validation.rule.RuleActionRegistry;
+import com.bootleg.brevo.validation.ValidationErrors;
+import com.bootleg.brevo.validation.ValidationOptions;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 
+/**
+ * Validates one FormSubmission against a precompiled FormValidationPlan.
+ * <p>
+ * Hot path: the plan is already sorted and rule actions are already resolved,
+ * so nothing config-shaped is allocated here. Each value is trimmed / parsed once per field (FieldValue),
+ * not once per rule. Errors go to a ValidationErrors sink, which applies
+ * the request's mode and error cap (the list is only created on the first error).
+ */
 @Service
 public class FormValidationService {
 
-  private final RuleActionRegistry registry;
-
-  public FormValidationService(RuleActionRegistry registry) {
-    this.registry = registry;
+  public FormValidationResult validate(FormValidationPlan plan, FormSubmission formSub) {
+    ValidationErrors errors = new ValidationErrors(ValidationOptions.ALL);
+    validate(plan, formSub, errors);
+    return errors.isEmpty() ? FormValidationResult.ok() : FormValidationResult.fail(errors.list());
   }
 
-  public FormValidationResult validate(FormDefinition formDef, FormSubmission formSub) {
-    List<ValidationError> errors = new ArrayList<>();
+  /**
+   * Adds this form's errors to the request-wide sink; returns early once the sink is full.
+   */
+  public void validate(FormValidationPlan plan, FormSubmission formSub, ValidationErrors errors) {
     Map<String, String> payload = formSub.fields() == null ? Map.of() : formSub.fields();
+    Map<String, Object> formMeta = null;   // shared by this form's REQUIRED / UNKNOWN_FIELD errors
 
     // unknown fields
-    Set<String> allowed = new HashSet<>();
-    for (FieldDefinition fd : formDef.fields()) allowed.add(fd.fieldCode());
     for (String key : payload.keySet()) {
-      if (!allowed.contains(key)) {
-        errors.add(new ValidationError(
+      if (!plan.allows(key)) {
+        if (formMeta == null) formMeta = Map.of("formCode", plan.formCode());
+        if (!errors.add(new ValidationError(
           formSub.formCode(), key, "UNKNOWN_FIELD",
           "Field is not allowed for this form",
-          Map.of("formCode", formDef.formCode())
-        ));
+          formMeta
+        ))) return;
       }
     }
 
-    formDef.fields().stream()
-      .sorted(Comparator.comparingInt(FieldDefinition::sortOrder))
-      .forEach(fd -> validateField(formDef, formSub, fd, payload, errors));
-
-    return errors.isEmpty() ? FormValidationResult.ok() : FormValidationResult.fail(errors);
-  }
-
-  private void validateField(
-    FormDefinition formDef,
-    FormSubmission formSub,
-    FieldDefinition fd,
-    Map<String, String> payload,
-    List<ValidationError> errors
-  ) {
-    String raw = payload.get(fd.fieldCode());
-
-    if (fd.required() && isBlank(raw)) {
-      errors.add(new ValidationError(
-        formSub.formCode(), fd.fieldCode(), "REQUIRED",
-        "Field is required",
-        Map.of("formCode", formDef.formCode())
-      ));
-      return;
-    }
-
-    if (isBlank(raw)) return;
-
-    List<FieldRule> rules = fd.rules() == null ? List.of() : fd.rules();
+    FormValues values = new FormValues(plan, payload);
+    List<FieldSlot> fields = plan.fields();
+    for (int i = 0, n = fields.size(); i < n && !errors.full(); i++) {
+      FieldSlot slot = fields.get(i);
+      String fieldCode = slot.field().fieldCode();
+      FieldValue value = values.get(slot);
+      boolean blank = value == null || value.blank();
 
-    // field can have MORE than one rule -> run them all
-    for (FieldRule rule : rules) {
-      if (rule == null || rule.kind() == null) continue;
-
-      RuleAction action = registry.get(rule.kind());
-      if (action == null) {
+      if (slot.field().required() && blank) {
+        if (formMeta == null) formMeta = Map.of("formCode", plan.formCode());
         errors.add(new ValidationError(
-          formSub.formCode(), fd.fieldCode(), "UNKNOWN_RULE",
-          "Unsupported rule: " + rule.kind(),
-          Map.of("ruleKind", String.valueOf(rule.kind()))
+          formSub.formCode(), fieldCode, "REQUIRED",
+          "Field is required",
+          formMeta
         ));
         continue;
       }
 
-      action.apply(formSub.formCode(), fd, raw, rule).ifPresent(errors::add);
+      if (!blank) validateRules(formSub, slot, value, values, errors);
     }
   }
 
-  private boolean isBlank(String s) {
-    return s == null || s.trim().isEmpty();
+  private void validateRules(
+    FormSubmission formSub,
+    FieldSlot slot,
+    FieldValue value,
+    FormValues values,
+    ValidationErrors errors
+  ) {
+    String fieldCode = slot.field().fieldCode();
+
+    // field can have MORE than one rule -> run them all (FIRST_PER_FIELD: until the first error)
+    List<CompiledRule> rules = slot.rules();
+    for (int i = 0, n = rules.size(); i < n; i++) {
+      CompiledRule cr = rules.get(i);
+
+      ValidationError err;
+      if (cr.action() == null) {
+        err = new ValidationError(
+          formSub.formCode(), fieldCode, "UNKNOWN_RULE",
+          "Unsupported or misconfigured rule: " + cr.rule().kind(),
+          Map.of("ruleKind", String.valueOf(cr.rule().kind()))
+        );
+      } else {
+        err = cr.action().apply(formSub.formCode(), slot.field(), value, cr, values).orElse(null);
+      }
+
+      if (err == null) continue;
+      if (!errors.add(err) || errors.firstPerField()) return;
+    }
   }
 }
@@ -1,85 +1,194 @@
 package com.bootleg.brevo.validation.services;
 
-import com.bootleg.brevo.config.model.FieldDefinition;
-import com.bootleg.brevo.config.model.FieldRule;
-import com.bootleg.brevo.config.model.FormDefinition;
-import com.bootleg.brevo.preload.PreloadKeys;
-import com.bootleg.brevo.preload.PreloadSnapshot;
+import com.bootleg.brevo.preload.PreloadIndex;
 import com.bootleg.brevo.preload.PreloadStore;
 import com.bootleg.brevo.runtime.dto.FormSubmission;
 import com.bootleg.brevo.runtime.dto.GroupSubmission;
-import com.bootleg.brevo.validation.FormValidationResult;
 import com.bootleg.brevo.validation.GroupValidationResult;
 import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.ValidationErrors;
+import com.bootleg.brevo.validation.ValidationOptions;
+import com.bootleg.brevo.validation.ValidationProperties;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import com.bootleg.brevo.validation.plan.GroupValidationPlan;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.*;
 
+/**
+ * Validates a group payload: group/form checks here, field rules in FormValidationService.
+ * <p>
+ * validateAsync() with {@code brevo.validation.parallel-threshold} > 0: payloads with at least that many
+ * form submissions are validated form-by-form on a dedicated bounded scheduler (off the event loop) and
+ * merged back in submission order, so the result is the same as the sequential one. Smaller payloads
+ * stay inline.
+ */
 @Service
 public class GroupPayloadValidationService {
 
   private final PreloadStore preloadStore;
   private final FormValidationService formValidationService;
+  private final ValidationProperties props;
+  private final Scheduler formScheduler;    // null when parallel mode is off
 
   public GroupPayloadValidationService(PreloadStore preloadStore,
-                                       FormValidationService formValidationService) {
+                                       FormValidationService formValidationService,
+                                       ValidationProperties props) {
     this.preloadStore = preloadStore;
     this.formValidationService = formValidationService;
+    this.props = props;
+    this.formScheduler = props.parallelThreshold() > 0
+      ? Schedulers.newParallel("form-validation", props.parallelism(), true)
+      : null;
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (formScheduler != null) formScheduler.dispose();
   }
 
   public GroupValidationResult validate(String journeyCode, int groupNo, GroupSubmission submission) {
-    List<ValidationError> errors = new ArrayList<>();
+    return validate(journeyCode, groupNo, submission, props.defaults());
+  }
+
+  public GroupValidationResult validate(
+    String journeyCode,
+    int groupNo,
+    GroupSubmission submission,
+    ValidationOptions options
+  ) {
+    Prepared p = prepare(journeyCode, groupNo, submission);
+    return p.result() != null ? p.result() : validateSequential(p.checks(), options);
+  }
+
+  private GroupValidationResult validateSequential(List<FormCheck> checks, ValidationOptions options) {
+    ValidationErrors errors = new ValidationErrors(options);
+    for (FormCheck check : checks) {
+      if (errors.full()) break;
+
+      if (check.error() != null) {
+        errors.add(check.error());
+      } else {
+        formValidationService.validate(check.plan(), check.submission(), errors);
+      }
+    }
+
+    return GroupValidationResult.of(errors);
+  }
+
+  public Mono<GroupValidationResult> validateAsync(String journeyCode, int groupNo, GroupSubmission submission) {
+    return validateAsync(journeyCode, groupNo, submission, props.defaults());
+  }
+
+  /**
+   * Same result as validate(); large payloads (parallel mode) run per form on the validation scheduler.
+   */
+  public Mono<GroupValidationResult> validateAsync(
+    String journeyCode,
+    int groupNo,
+    GroupSubmission submission,
+    ValidationOptions options
+  ) {
+    return Mono.defer(() -> {
+      Prepared p = prepare(journeyCode, groupNo, submission);
+      if (p.result() != null) return Mono.just(p.result());
+
+      if (formScheduler == null || p.checks().size() < props.parallelThreshold()) {
+        return Mono.just(validateSequential(p.checks(), options));
+      }
+
+      // each form gets its own sink (same cap => it holds at least what the merged result needs),
+      // flatMapSequential hands them back in submission order, and the merge stops at the request cap
+      ValidationErrors merged = new ValidationErrors(options);
+      return Flux.fromIterable(p.checks())
+        .flatMapSequential(check -> check.error() != null
+          ? Mono.just(failedForm(check, options))
+          : Mono.fromCallable(() -> validateForm(check, options)).subscribeOn(formScheduler),
+          props.parallelism())
+        .doOnNext(merged::addAll)
+        .takeUntil(formErrors -> merged.full())
+        .then(Mono.fromSupplier(() -> GroupValidationResult.of(merged)));
+    });
+  }
+
+  private ValidationErrors validateForm(FormCheck check, ValidationOptions options) {
+    ValidationErrors own = new ValidationErrors(options);
+    formValidationService.validate(check.plan(), check.submission(), own);
+    return own;
+  }
+
+  private static ValidationErrors failedForm(FormCheck check, ValidationOptions options) {
+    ValidationErrors own = new ValidationErrors(options);
+    own.add(check.error());
+    return own;
+  }
 
+  /**
+   * Everything before field rules: request checks, limits, and per form either its plan or its error.
+   */
+  private Prepared prepare(String journeyCode, int groupNo, GroupSubmission submission) {
     if (journeyCode == null || journeyCode.isBlank()) {
-      return GroupValidationResult.fail(List.of(new ValidationError(
+      return Prepared.done(GroupValidationResult.fail(List.of(new ValidationError(
         null, null, "JOURNEY", "journeyCode is required", Map.of()
-      )));
+      ))));
     }
 
     if (submission == null || submission.submissions() == null || submission.submissions().isEmpty()) {
-      return GroupValidationResult.fail(List.of(new ValidationError(
+      return Prepared.done(GroupValidationResult.fail(List.of(new ValidationError(
         null, null, "PAYLOAD",
         "submissions must not be empty",
         Map.of("journeyCode", journeyCode, "groupNo", groupNo)
-      )));
+      ))));
     }
 
-    PreloadSnapshot snap = preloadStore.current();
-    String gk = PreloadKeys.groupKey(journeyCode, groupNo);
+    // Size limits first: the cost of everything below is bounded by them
+    ValidationError overLimit = checkLimits(submission);
+    if (overLimit != null) {
+      return Prepared.done(GroupValidationResult.fail(List.of(overLimit)));
+    }
 
-    // Allowed forms in this group (already flattened with child forms)
-    List<String> allowedFormsList = snap.groupForms().get(gk);
-    if (allowedFormsList == null) {
-      return GroupValidationResult.fail(List.of(new ValidationError(
+    // Compiled at refresh time: allowed forms (flattened with child forms), child mapping, form plans.
+    // Codes are resolved to interned ids once; no string keys are built per request.
+    PreloadIndex index = preloadStore.current().index();
+    GroupValidationPlan plan = index.groupPlan(index.journeyId(journeyCode), groupNo);
+    if (plan == null) {
+      return Prepared.done(GroupValidationResult.fail(List.of(new ValidationError(
         null, null, "UNKNOWN_GROUP",
         "Group is not configured for this journey (did you call POST /config/refresh?)",
         Map.of("journeyCode", journeyCode, "groupNo", groupNo)
-      )));
+      ))));
     }
-    Set<String> allowedForms = new HashSet<>(allowedFormsList);
 
     // Parent -> child mapping (optional enforcement)
-    Map<String, List<String>> childMap = snap.childForms().getOrDefault(gk, Map.of());
+    Map<String, List<String>> childMap = plan.childForms();
+    List<FormCheck> checks = new ArrayList<>(submission.submissions().size());
 
     for (FormSubmission formSub : submission.submissions()) {
       if (formSub == null) {
-        errors.add(new ValidationError(null, null, "FORM", "Form submission is null", Map.of()));
+        checks.add(FormCheck.failed(new ValidationError(null, null, "FORM", "Form submission is null", Map.of())));
         continue;
       }
 
       String formCode = formSub.formCode();
       if (formCode == null || formCode.isBlank()) {
-        errors.add(new ValidationError(null, null, "FORM", "Missing formCode", Map.of()));
+        checks.add(FormCheck.failed(new ValidationError(null, null, "FORM", "Missing formCode", Map.of())));
         continue;
       }
 
+      int formId = index.formId(formCode);
+
       // 1) stop random forms in a group
-      if (!allowedForms.contains(formCode)) {
-        errors.add(new ValidationError(
+      if (!plan.allowsForm(formId)) {
+        checks.add(FormCheck.failed(new ValidationError(
           formCode, null, "UNKNOWN_FORM",
           "Form is not allowed in this group",
           Map.of("journeyCode", journeyCode, "groupNo", groupNo)
-        ));
+        )));
         continue;
       }
 
@@ -88,58 +197,72 @@ public class GroupPayloadValidationService {
       if (parent != null && !parent.isBlank()) {
         List<String> allowedChildren = childMap.getOrDefault(parent, List.of());
         if (!allowedChildren.contains(formCode)) {
-          errors.add(new ValidationError(
+          checks.add(FormCheck.failed(new ValidationError(
             formCode, null, "INVALID_CHILD_FORM",
             "Child form is not allowed for given parentFormCode",
             Map.of("parentFormCode", parent, "expectedChildren", allowedChildren)
-          ));
+          )));
           continue;
         }
       }
 
-      // 3) build FormDefinition from preload maps
-      FormDefinition formDef = buildFormDefinitionFromPreload(snap, formCode);
-      if (formDef == null) {
-        errors.add(new ValidationError(
+      // 3) precompiled form plan (no per-request FormDefinition building)
+      FormValidationPlan formPlan = index.formPlan(formId);
+      if (formPlan == null) {
+        checks.add(FormCheck.failed(new ValidationError(
           formCode, null, "FORM_CONFIG_MISSING",
           "Form fields/rules not found in preload snapshot",
           Map.of("formCode", formCode)
-        ));
+        )));
         continue;
       }
 
-      // 4) reuse your existing form validator
-      FormValidationResult r = formValidationService.validate(formDef, formSub);
-      errors.addAll(r.errors());
+      // 4) field rules: FormValidationService (inline or on the validation scheduler)
+      checks.add(new FormCheck(formSub, formPlan, null));
     }
 
-    return errors.isEmpty() ? GroupValidationResult.ok() : GroupValidationResult.fail(errors);
+    return new Prepared(null, checks);
   }
 
-  private FormDefinition buildFormDefinitionFromPreload(PreloadSnapshot snap, String formCode) {
-    List<String> fieldCodes = snap.formFields().get(formCode);
-    if (fieldCodes == null) return null;
-
-    List<FieldDefinition> fields = new ArrayList<>(fieldCodes.size());
-
-    for (String fieldCode : fieldCodes) {
-      String fk = PreloadKeys.fieldKey(formCode, fieldCode);
+  private ValidationError checkLimits(GroupSubmission submission) {
+    List<FormSubmission> subs = submission.submissions();
+    if (subs.size() > props.maxSubmissions()) {
+      return limitError("Too many form submissions", props.maxSubmissions(), subs.size());
+    }
 
-      PreloadSnapshot.FieldMeta meta = snap.fieldMeta().get(fk);
-      if (meta == null) continue;
+    int total = 0;
+    for (FormSubmission formSub : subs) {
+      int n = (formSub == null || formSub.fields() == null) ? 0 : formSub.fields().size();
+      if (n > props.maxFieldsPerForm()) {
+        return limitError("Too many fields in form " + formSub.formCode(), props.maxFieldsPerForm(), n);
+      }
+      total += n;
+    }
+    if (total > props.maxFields()) {
+      return limitError("Too many fields", props.maxFields(), total);
+    }
+    return null;
+  }
 
-      List<FieldRule> rules = snap.fieldRules().getOrDefault(fk, List.of());
+  private static ValidationError limitError(String message, int limit, int actual) {
+    return new ValidationError(null, null, "LIMIT", message, Map.of("limit", limit, "actual", actual));
+  }
 
-      fields.add(new FieldDefinition(
-        meta.fieldCode(),
-        meta.fieldType(),
-        meta.required(),
-        meta.sortOrder(),
-        rules
-      ));
+  /**
+   * result != null => finished before any form was validated.
+   */
+  private record Prepared(GroupValidationResult result, List<FormCheck> checks) {
+    static Prepared done(GroupValidationResult result) {
+      return new Prepared(result, List.of());
     }
+  }
 
-    fields.sort(Comparator.comparingInt(FieldDefinition::sortOrder));
-    return new FormDefinition(formCode, 0, List.copyOf(fields));
+  /**
+   * One submitted form: either a plan to validate against, or the error that rejected it up front.
+   */
+  private record FormCheck(FormSubmission submission, FormValidationPlan plan, ValidationError error) {
+    static FormCheck failed(ValidationError error) {
+      return new FormCheck(null, null, error);
+    }
   }
 }
@@ -0,0 +1,69 @@
+package com.bootleg.brevo.preload;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodeIndexTest {
+
+  @Test
+  void collidingHashesAreBothFound() {
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+
+    CodeIndex idx = new CodeIndex(2);
+    idx.put("Aa", 1);
+    idx.put("BB", 2);
+
+    assertEquals(1, idx.get("Aa"));
+    assertEquals(2, idx.get("BB"));
+    assertEquals(2, idx.size());
+  }
+
+  @Test
+  void missingKeysReturnMinusOne() {
+    CodeIndex idx = new CodeIndex(1);
+    idx.put("A", 0);
+
+    assertEquals(-1, idx.get("B"));
+    assertEquals(-1, idx.get(null));
+    assertEquals(-1, new CodeIndex(0).get("A"));
+  }
+
+  @Test
+  void putOverwritesWithoutGrowing() {
+    CodeIndex idx = new CodeIndex(1);
+    idx.put("A", 1);
+    idx.put(new String("A"), 2);
+
+    assertEquals(2, idx.get("A"));
+    assertEquals(1, idx.size());
+  }
+
+  @Test
+  void manyKeysAtFullLoad() {
+    int n = 1000;
+    CodeIndex idx = new CodeIndex(n);
+    for (int i = 0; i < n; i++) idx.put("F" + i, i);
+
+    for (int i = 0; i < n; i++) assertEquals(i, idx.get("F" + i));
+    assertEquals(-1, idx.get("F" + n));
+  }
+
+  @Test
+  void fullTableRejectsNewKeysButNotUpdates() {
+    CodeIndex idx = new CodeIndex(2);       // capacity 8, at most half used
+    for (int i = 0; i < 4; i++) idx.put("K" + i, i);
+
+    assertThrows(IllegalStateException.class, () -> idx.put("K4", 4));
+    idx.put("K0", 9);
+    assertEquals(9, idx.get("K0"));
+  }
+
+  @Test
+  void rejectsNullKeyAndNegativeValue() {
+    CodeIndex idx = new CodeIndex(1);
+
+    assertThrows(IllegalArgumentException.class, () -> idx.put(null, 0));
+    assertThrows(IllegalArgumentException.class, () -> idx.put("A", -1));
+  }
+}
@@ -0,0 +1,59 @@
+package com.bootleg.brevo.preload;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIndexTest {
+
+  @Test
+  void manyKeysAtFullLoad() {
+    int n = 1000;
+    IntIndex idx = new IntIndex(n);
+    for (int i = 0; i < n; i++) idx.put(i * 16, i);     // same low bits: probing is exercised
+
+    for (int i = 0; i < n; i++) assertEquals(i, idx.get(i * 16));
+    assertEquals(n, idx.size());
+  }
+
+  @Test
+  void missingKeysReturnMinusOne() {
+    IntIndex idx = new IntIndex(2);
+    idx.put(0, 5);
+    idx.put(-7, 6);
+
+    assertEquals(5, idx.get(0));
+    assertEquals(6, idx.get(-7));
+    assertEquals(-1, idx.get(1));
+    assertEquals(-1, idx.get(Integer.MIN_VALUE));
+    assertEquals(-1, new IntIndex(0).get(0));
+  }
+
+  @Test
+  void putOverwritesWithoutGrowing() {
+    IntIndex idx = new IntIndex(1);
+    idx.put(3, 1);
+    idx.put(3, 2);
+
+    assertEquals(2, idx.get(3));
+    assertEquals(1, idx.size());
+  }
+
+  @Test
+  void fullTableRejectsNewKeysButNotUpdates() {
+    IntIndex idx = new IntIndex(2);         // capacity 8, at most half used
+    for (int i = 0; i < 4; i++) idx.put(i, i);
+
+    assertThrows(IllegalStateException.class, () -> idx.put(4, 4));
+    idx.put(0, 9);
+    assertEquals(9, idx.get(0));
+  }
+
+  @Test
+  void rejectsReservedKeyAndNegativeValue() {
+    IntIndex idx = new IntIndex(1);
+
+    assertThrows(IllegalArgumentException.class, () -> idx.put(Integer.MIN_VALUE, 0));
+    assertThrows(IllegalArgumentException.class, () -> idx.put(1, -1));
+  }
+}
@@ -0,0 +1,112 @@
+package com.bootleg.brevo.preload;
+
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import com.bootleg.brevo.validation.plan.GroupValidationPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreloadIndexTest {
+
+  @Test
+  void idsAreDenseInFirstSeenOrder() {
+    PreloadIndex.Builder b = PreloadIndex.builder();
+    assertEquals(0, b.internJourney("J1"));
+    assertEquals(1, b.internJourney("J2"));
+    assertEquals(0, b.internJourney("J1"));
+    assertEquals(0, b.internForm("F1"));
+    assertEquals(0, b.internField("X"));
+
+    PreloadIndex idx = b.build();
+    assertEquals(List.of("J1", "J2"), idx.journeyCodes());
+    assertEquals(1, idx.journeyId("J2"));
+    assertEquals(0, idx.formId("F1"));
+    assertEquals(0, idx.fieldId("X"));
+  }
+
+  @Test
+  void missingEntriesAreMinusOneOrNull() {
+    PreloadIndex.Builder b = PreloadIndex.builder();
+    int j = b.internJourney("J1");
+    b.groupPlan(j, 1, group("J1", 1));
+    PreloadIndex idx = b.build();
+
+    assertEquals(-1, idx.journeyId("NOPE"));
+    assertEquals(-1, idx.formId("NOPE"));
+    assertEquals(-1, idx.fieldId("NOPE"));
+    assertNull(idx.groupPlan(j, 2));
+    assertNull(idx.groupPlan(-1, 1));
+    assertNull(idx.groupPlan(5, 1));
+    assertNull(idx.formPlan(-1));
+    assertNull(idx.formPlan(0));
+
+    PreloadIndex empty = PreloadIndex.empty();
+    assertEquals(-1, empty.journeyId("J1"));
+    assertNull(empty.groupPlan(0, 1));
+  }
+
+  @Test
+  void plansAreFoundByJourneyAndGroup() {
+    GroupValidationPlan g1 = group("J1", 1);
+    GroupValidationPlan g2 = group("J2", 1);
+    FormValidationPlan form = new FormValidationPlan("F1", List.of(), Map.of());
+
+    PreloadIndex.Builder b = PreloadIndex.builder();
+    b.groupPlan(b.internJourney("J1"), 1, g1);
+    b.groupPlan(b.internJourney("J2"), 1, g2);
+    b.formPlan(b.internForm("F1"), form);
+    PreloadIndex idx = b.build();
+
+    assertSame(g1, idx.groupPlan(idx.journeyId("J1"), 1));
+    assertSame(g2, idx.groupPlan(idx.journeyId("J2"), 1));
+    assertSame(form, idx.formPlan(idx.formId("F1")));
+  }
+
+  @Test
+  void builderFromKeepsIdsAndPlans() {
+    GroupValidationPlan g1 = group("J1", 1);
+    GroupValidationPlan g2 = group("J1", 2);
+    FormValidationPlan form = new FormValidationPlan("F1", List.of(), Map.of());
+
+    PreloadIndex.Builder b = PreloadIndex.builder();
+    int j = b.internJourney("J1");
+    b.groupPlan(j, 1, g1).groupPlan(j, 2, g2);
+    b.formPlan(b.internForm("F1"), form);
+    b.internField("X");
+    PreloadIndex before = b.build();
+
+    PreloadIndex.Builder copy = PreloadIndex.builder(before);
+    GroupValidationPlan g1b = group("J1", 1);
+    copy.groupPlan(copy.internJourney("J1"), 1, g1b);
+    int j2 = copy.internJourney("J2");
+    PreloadIndex after = copy.build();
+
+    assertEquals(before.journeyId("J1"), after.journeyId("J1"));
+    assertEquals(1, j2);
+    assertSame(g1b, after.groupPlan(j, 1));
+    assertSame(g2, after.groupPlan(j, 2));
+    assertSame(form, after.formPlan(after.formId("F1")));
+    assertEquals(0, after.fieldId("X"));
+    assertSame(g1, before.groupPlan(j, 1));      // the source index is untouched
+  }
+
+  @Test
+  void clearGroupPlansDropsOnlyThatJourney() {
+    PreloadIndex.Builder b = PreloadIndex.builder();
+    int j1 = b.internJourney("J1");
+    int j2 = b.internJourney("J2");
+    b.groupPlan(j1, 1, group("J1", 1)).groupPlan(j2, 1, group("J2", 1));
+
+    PreloadIndex idx = b.clearGroupPlans(j1).build();
+    assertNull(idx.groupPlan(j1, 1));
+    assertNotNull(idx.groupPlan(j2, 1));
+  }
+
+  private static GroupValidationPlan group(String journeyCode, int groupNo) {
+    return new GroupValidationPlan(journeyCode, groupNo, List.of(), new BitSet(), Map.of());
+  }
+}
@@ -0,0 +1,72 @@
+package com.bootleg.brevo.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScaledDecimalTest {
+
+  @Test
+  void parsesPlainDecimalsOnTheFastPath() {
+    assertEquals(new ScaledDecimal(12, 0, null), ScaledDecimal.parse("12"));
+    assertEquals(new ScaledDecimal(-350, 2, null), ScaledDecimal.parse("-3.50"));
+    assertEquals(new ScaledDecimal(7, 0, null), ScaledDecimal.parse("+7."));
+    assertEquals(new ScaledDecimal(5, 1, null), ScaledDecimal.parse(".5"));
+  }
+
+  @Test
+  void rejectsNonNumbers() {
+    for (String s : new String[]{"", "-", "+", ".", "1.2.3", "abc", "1,5", " 1", "1e", "--1"}) {
+      assertNull(ScaledDecimal.parse(s), s);
+    }
+  }
+
+  @Test
+  void exponentsAndLongNumbersGoThroughBigDecimal() {
+    ScaledDecimal exp = ScaledDecimal.parse("1.5e3");
+    ScaledDecimal longOne = ScaledDecimal.parse("1234567890123456789");     // 19 digits
+
+    assertEquals(0, exp.compareTo(ScaledDecimal.parse("1500")));
+    assertNotNull(longOne.big());
+    assertEquals(new BigDecimal("1234567890123456789"), longOne.toBigDecimal());
+    assertTrue(longOne.compareTo(ScaledDecimal.parse("999999999999999999")) > 0);
+  }
+
+  @Test
+  void comparesAcrossScales() {
+    assertEquals(0, ScaledDecimal.parse("1.5").compareTo(ScaledDecimal.parse("1.50")));
+    assertTrue(ScaledDecimal.parse("2").compareTo(ScaledDecimal.parse("1.99")) > 0);
+    assertTrue(ScaledDecimal.parse("1.99").compareTo(ScaledDecimal.parse("2")) < 0);
+  }
+
+  @Test
+  void negativeValues() {
+    assertTrue(ScaledDecimal.parse("-1").compareTo(ScaledDecimal.parse("-0.5")) < 0);
+    assertTrue(ScaledDecimal.parse("-0.5").compareTo(ScaledDecimal.parse("0")) < 0);
+    assertEquals(0, ScaledDecimal.parse("-0").compareTo(ScaledDecimal.parse("0.00")));
+    assertTrue(ScaledDecimal.parse("-999999999999999999").compareTo(ScaledDecimal.parse("-0.000000000000000001")) < 0);
+  }
+
+  @Test
+  void rescaleOverflowFallsBackToBigDecimal() {
+    ScaledDecimal huge = ScaledDecimal.parse("999999999999999999");             // 18 digits, scale 0
+    ScaledDecimal tiny = ScaledDecimal.parse("0.000000000000000001");           // scale 18
+
+    assertNull(huge.big());
+    assertNull(tiny.big());
+    assertTrue(huge.compareTo(tiny) > 0);
+    assertTrue(tiny.compareTo(huge) < 0);
+  }
+
+  @Test
+  void configBounds() {
+    assertNull(ScaledDecimal.of(null));
+    assertEquals(new ScaledDecimal(1050, 2, null), ScaledDecimal.of(new BigDecimal("10.50")));
+
+    ScaledDecimal negativeScale = ScaledDecimal.of(new BigDecimal("1E+3"));
+    assertNotNull(negativeScale.big());
+    assertEquals(0, negativeScale.compareTo(ScaledDecimal.parse("1000")));
+  }
+}
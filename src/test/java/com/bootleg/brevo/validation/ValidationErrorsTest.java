@@ -0,0 +1,69 @@
+package com.bootleg.brevo.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationErrorsTest {
+
+  private final ValidationOptions capTwo = new ValidationOptions(ValidationMode.ALL, 2);
+
+  @Test
+  void belowCapIsNotTruncated() {
+    ValidationErrors errors = new ValidationErrors(capTwo);
+    assertTrue(errors.add(error("A")));
+
+    assertFalse(errors.truncated());
+    assertFalse(errors.full());
+    assertFalse(GroupValidationResult.of(errors).truncated());
+  }
+
+  @Test
+  void errorThatReachesTheCapStopsTheWalk() {
+    ValidationErrors errors = new ValidationErrors(capTwo);
+    assertTrue(errors.add(error("A")));
+
+    assertFalse(errors.add(error("B")));
+    assertTrue(errors.full());
+    assertTrue(errors.truncated());
+    assertTrue(GroupValidationResult.of(errors).truncated());
+    assertEquals(2, errors.list().size());
+  }
+
+  @Test
+  void errorsPastTheCapAreDropped() {
+    ValidationErrors errors = new ValidationErrors(capTwo);
+    errors.add(error("A"));
+    errors.add(error("B"));
+
+    assertFalse(errors.add(error("C")));
+    assertEquals(2, errors.list().size());
+  }
+
+  @Test
+  void mergeStopsAtTheCap() {
+    ValidationErrors form = new ValidationErrors(capTwo);
+    form.add(error("A"));
+
+    ValidationErrors merged = new ValidationErrors(capTwo);
+    assertTrue(merged.addAll(form));
+    assertFalse(merged.addAll(form));
+    assertTrue(merged.truncated());
+    assertEquals(2, merged.list().size());
+  }
+
+  @Test
+  void zeroMeansUnlimited() {
+    ValidationErrors errors = new ValidationErrors(ValidationOptions.ALL);
+    for (int i = 0; i < 100; i++) assertTrue(errors.add(error("F" + i)));
+
+    assertFalse(errors.truncated());
+    assertEquals(100, errors.list().size());
+  }
+
+  private static ValidationError error(String field) {
+    return new ValidationError("FORM", field, "REQUIRED", "Field is required", Map.of());
+  }
+}
@@ -0,0 +1,48 @@
+package com.bootleg.brevo.validation.plan;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.FieldType;
+import com.bootleg.brevo.config.model.FormDefinition;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.rule.CrossFieldRuleAction;
+import com.bootleg.brevo.validation.rule.RuleActionRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationPlanCompilerTest {
+
+  private final ValidationPlanCompiler compiler =
+    new ValidationPlanCompiler(new RuleActionRegistry(List.of(new CrossFieldRuleAction())));
+
+  @Test
+  void crossFieldRuleOnAFieldOfTheFormIsCompiled() {
+    CompiledRule rule = compileEndRule("GE START");
+
+    assertNotNull(rule.action());
+    assertNotNull(rule.artifact());
+  }
+
+  @Test
+  void crossFieldRuleOnAMissingFieldIsRejectedLikeAnUnknownOp() {
+    CompiledRule missingField = compileEndRule("GE BEGIN");
+    CompiledRule unknownOp = compileEndRule("AFTER START");
+
+    assertNull(missingField.action());
+    assertNull(unknownOp.action());
+  }
+
+  private CompiledRule compileEndRule(String value) {
+    FieldRule rule = new FieldRule(RuleKind.CROSS_FIELD, null, null, value);
+    FormDefinition form = new FormDefinition("PERIOD", 1, List.of(
+      new FieldDefinition("START", FieldType.TEXT, false, 1, List.of()),
+      new FieldDefinition("END", FieldType.TEXT, false, 2, List.of(rule))
+    ));
+
+    FormValidationPlan plan = compiler.compileForm(form);
+    return plan.fieldsByCode().get("END").rules().get(0);
+  }
+}
@@ -0,0 +1,82 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.FieldType;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossFieldRuleActionTest {
+
+  private final CrossFieldRuleAction action = new CrossFieldRuleAction();
+
+  @Test
+  void datesCompareAsDates() {
+    FieldRule rule = new FieldRule(RuleKind.CROSS_FIELD, null, null, "GE start");
+
+    assertTrue(apply(rule, "2000-02-01", "2000-01-31").isEmpty());
+
+    Optional<ValidationError> err = apply(rule, "2000-01-30", "2000-01-31");
+    assertTrue(err.isPresent());
+    assertEquals("CROSS_FIELD", err.get().rule());
+    assertEquals(Map.of("op", "GE", "otherField", "START"), err.get().meta());
+  }
+
+  @Test
+  void numbersCompareAsNumbers() {
+    FieldRule rule = new FieldRule(RuleKind.CROSS_FIELD, null, null, "LT START");
+
+    assertTrue(apply(rule, "9", "10").isEmpty());     // text order would say "9" > "10"
+    assertTrue(apply(rule, "10.0", "10").isPresent());
+  }
+
+  @Test
+  void skippedWhileOtherFieldIsBlankOrNotSubmitted() {
+    FieldRule rule = new FieldRule(RuleKind.CROSS_FIELD, null, null, "EQ START");
+
+    assertTrue(apply(rule, "x", "  ").isEmpty());
+    assertTrue(apply(rule, "x", null).isEmpty());
+  }
+
+  @Test
+  void compileExposesTheOtherField() {
+    Object artifact = action.compile(new FieldRule(RuleKind.CROSS_FIELD, null, null, "ne start"));
+
+    assertEquals(Set.of("START"), action.referencedFields(artifact));
+  }
+
+  @Test
+  void malformedRuleIsRejectedAtCompile() {
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.CROSS_FIELD, null, null, "START")));
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.CROSS_FIELD, null, null, "ABOUT START")));
+  }
+
+  private Optional<ValidationError> apply(FieldRule rule, String raw, String otherRaw) {
+    FieldDefinition start = new FieldDefinition("START", FieldType.TEXT, false, 1, List.of());
+    FieldDefinition end = new FieldDefinition("END", FieldType.TEXT, false, 2, List.of(rule));
+    CompiledRule compiled = new CompiledRule(rule, action, action.compile(rule));
+    FieldSlot startSlot = new FieldSlot(0, start, List.of());
+    FieldSlot endSlot = new FieldSlot(1, end, List.of(compiled));
+
+    Map<String, String> payload = new HashMap<>();
+    payload.put("END", raw);
+    if (otherRaw != null) payload.put("START", otherRaw);
+
+    FormValues values = new FormValues(
+      new FormValidationPlan("FORM", List.of(startSlot, endSlot), Map.of("START", startSlot, "END", endSlot)), payload);
+    return action.apply("FORM", end, values.get(endSlot), compiled, values);
+  }
+}
@@ -0,0 +1,68 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.FieldType;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateRuleActionTest {
+
+  private final DateRuleAction action = new DateRuleAction();
+
+  @Test
+  void boundsAreInclusive() {
+    FieldRule rule = new FieldRule(RuleKind.DATE, null, null, "2000-01-01..2000-12-31");
+
+    assertTrue(apply(rule, "2000-01-01").isEmpty());
+    assertTrue(apply(rule, "2000-12-31").isEmpty());
+
+    Optional<ValidationError> err = apply(rule, "2001-01-01");
+    assertTrue(err.isPresent());
+    assertEquals("DATE", err.get().rule());
+    assertEquals(Map.of("min", "2000-01-01", "max", "2000-12-31"), err.get().meta());
+  }
+
+  @Test
+  void openSideIsUnbounded() {
+    FieldRule rule = new FieldRule(RuleKind.DATE, null, null, "..2000-12-31");
+
+    assertTrue(apply(rule, "1900-06-15").isEmpty());
+    assertTrue(apply(rule, "2001-01-01").isPresent());
+  }
+
+  @Test
+  void nonDateIsATypeError() {
+    Optional<ValidationError> err = apply(new FieldRule(RuleKind.DATE, null, null, ".."), "31/12/2000");
+
+    assertTrue(err.isPresent());
+    assertEquals("TYPE", err.get().rule());
+  }
+
+  @Test
+  void malformedRangeIsRejectedAtCompile() {
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.DATE, null, null, "2000-01-01")));
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.DATE, null, null, "2001-01-01..2000-01-01")));
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.DATE, null, null, "yesterday..")));
+  }
+
+  private Optional<ValidationError> apply(FieldRule rule, String raw) {
+    FieldDefinition field = new FieldDefinition("BIRTH_DATE", FieldType.TEXT, false, 1, List.of(rule));
+    CompiledRule compiled = new CompiledRule(rule, action, action.compile(rule));
+    FieldSlot slot = new FieldSlot(0, field, List.of(compiled));
+    FormValues values = new FormValues(
+      new FormValidationPlan("FORM", List.of(slot), Map.of("BIRTH_DATE", slot)), Map.of("BIRTH_DATE", raw));
+    return action.apply("FORM", field, values.get(slot), compiled, values);
+  }
+}
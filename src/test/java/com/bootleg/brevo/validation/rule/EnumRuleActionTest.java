@@ -0,0 +1,49 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.FieldType;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumRuleActionTest {
+
+  private final EnumRuleAction action = new EnumRuleAction();
+
+  @Test
+  void trimmedValueMustBeAllowed() {
+    FieldRule rule = new FieldRule(RuleKind.ENUM, null, null, " RED | GREEN |RED");
+
+    assertTrue(apply(rule, " GREEN ").isEmpty());
+
+    Optional<ValidationError> err = apply(rule, "green");
+    assertTrue(err.isPresent());
+    assertEquals("ENUM", err.get().rule());
+    assertEquals(Map.of("allowed", List.of("RED", "GREEN")), err.get().meta());
+  }
+
+  @Test
+  void ruleWithoutAllowedValuesIsRejectedAtCompile() {
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.ENUM, null, null, " | ")));
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.ENUM, null, null, null)));
+  }
+
+  private Optional<ValidationError> apply(FieldRule rule, String raw) {
+    FieldDefinition field = new FieldDefinition("COLOR", FieldType.NOMINAL, false, 1, List.of(rule));
+    CompiledRule compiled = new CompiledRule(rule, action, action.compile(rule));
+    FieldSlot slot = new FieldSlot(0, field, List.of(compiled));
+    FormValues values = new FormValues(new FormValidationPlan("FORM", List.of(slot), Map.of("COLOR", slot)), Map.of("COLOR", raw));
+    return action.apply("FORM", field, values.get(slot), compiled, values);
+  }
+}
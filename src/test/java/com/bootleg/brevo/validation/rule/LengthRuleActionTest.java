@@ -0,0 +1,53 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.FieldType;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LengthRuleActionTest {
+
+  private final LengthRuleAction action = new LengthRuleAction();
+
+  @Test
+  void maxOnlyRuleReportsErrorWithoutNullBound() {
+    Optional<ValidationError> err = apply(new FieldRule(RuleKind.LENGTH, null, BigDecimal.valueOf(3), null), "abcd");
+
+    assertTrue(err.isPresent());
+    assertEquals(Map.of("max", 3, "actual", 4), err.get().meta());
+  }
+
+  @Test
+  void minOnlyRuleReportsErrorWithoutNullBound() {
+    Optional<ValidationError> err = apply(new FieldRule(RuleKind.LENGTH, BigDecimal.valueOf(2), null, null), "a");
+
+    assertTrue(err.isPresent());
+    assertEquals(Map.of("min", 2, "actual", 1), err.get().meta());
+  }
+
+  @Test
+  void valueWithinBoundsPasses() {
+    assertTrue(apply(new FieldRule(RuleKind.LENGTH, null, BigDecimal.valueOf(3), null), "abc").isEmpty());
+  }
+
+  private Optional<ValidationError> apply(FieldRule rule, String raw) {
+    FieldDefinition field = new FieldDefinition("NAME", FieldType.TEXT, false, 1, List.of(rule));
+    CompiledRule compiled = new CompiledRule(rule, action, action.compile(rule));
+    FieldSlot slot = new FieldSlot(0, field, List.of(compiled));
+    FormValues values = new FormValues(new FormValidationPlan("FORM", List.of(slot), Map.of("NAME", slot)), Map.of("NAME", raw));
+    return action.apply("FORM", field, values.get(slot), compiled, values);
+  }
+}
@@ -0,0 +1,49 @@
+package com.bootleg.brevo.validation.rule;
+
+import com.bootleg.brevo.config.model.FieldDefinition;
+import com.bootleg.brevo.config.model.FieldRule;
+import com.bootleg.brevo.config.model.FieldType;
+import com.bootleg.brevo.config.model.RuleKind;
+import com.bootleg.brevo.validation.FormValues;
+import com.bootleg.brevo.validation.ValidationError;
+import com.bootleg.brevo.validation.plan.CompiledRule;
+import com.bootleg.brevo.validation.plan.FieldSlot;
+import com.bootleg.brevo.validation.plan.FormValidationPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegexRuleActionTest {
+
+  private final RegexRuleAction action = new RegexRuleAction();
+
+  @Test
+  void wholeValueMustMatch() {
+    FieldRule rule = new FieldRule(RuleKind.REGEX, null, null, "[0-9]{4}");
+
+    assertTrue(apply(rule, "1234").isEmpty());
+
+    Optional<ValidationError> err = apply(rule, "12345");
+    assertTrue(err.isPresent());
+    assertEquals("REGEX", err.get().rule());
+    assertEquals(Map.of("pattern", "[0-9]{4}"), err.get().meta());
+  }
+
+  @Test
+  void invalidOrMissingPatternIsRejectedAtCompile() {
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.REGEX, null, null, "[0-9")));
+    assertThrows(IllegalArgumentException.class, () -> action.compile(new FieldRule(RuleKind.REGEX, null, null, " ")));
+  }
+
+  private Optional<ValidationError> apply(FieldRule rule, String raw) {
+    FieldDefinition field = new FieldDefinition("ZIP", FieldType.TEXT, false, 1, List.of(rule));
+    CompiledRule compiled = new CompiledRule(rule, action, action.compile(rule));
+    FieldSlot slot = new FieldSlot(0, field, List.of(compiled));
+    FormValues values = new FormValues(new FormValidationPlan("FORM", List.of(slot), Map.of("ZIP", slot)), Map.of("ZIP", raw));
+    return action.apply("FORM", field, values.get(slot), compiled, values);
+  }
+}